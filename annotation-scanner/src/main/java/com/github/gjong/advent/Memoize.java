@@ -0,0 +1,56 @@
+package com.github.gjong.advent;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a recursive computation whose results should be remembered. The method may only accept {@code int} and
+ * {@code long} parameters and must return an {@code int} or {@code long}.
+ * <p>
+ * The {@link com.github.gjong.advent.processor.MemoizeProcessor} generates a memo table next to the enclosing class,
+ * named after the enclosing classes and the method, so {@code Day12.computeCount} results in
+ * {@code Day12ComputeCountMemo}. The table stores the arguments as primitives, no key objects are created for a
+ * lookup. Constructing the table without arguments results in an open-addressing table, when all parameters are ints
+ * a constructor taking an exclusive upper bound per parameter results in a dense array.
+ * <p>
+ * The annotated method holds the computation, recursive calls should go through the table:
+ * <pre>{@code
+ * private final Day12ComputeCountMemo memo = new Day12ComputeCountMemo();
+ *
+ * long count(int idx, int group) {
+ *     return memo.get(idx, group, this::computeCount);
+ * }
+ *
+ * @Memoize
+ * long computeCount(int idx, int group) {
+ *     ... count(idx + 1, group) ...
+ * }
+ * }</pre>
+ */
+@Target({ElementType.METHOD})
+@Retention(java.lang.annotation.RetentionPolicy.SOURCE)
+public @interface Memoize {
+
+    enum Threading {
+        /**
+         * The table may only be used by a single thread at a time.
+         */
+        SINGLE,
+        /**
+         * Every thread gets its own table, nothing is shared between threads.
+         */
+        PER_THREAD,
+        /**
+         * A single table shared by all threads, a value may be computed more than once when threads race.
+         */
+        CONCURRENT
+    }
+
+    /**
+     * How the generated table can be used from multiple threads.
+     *
+     * @return the threading mode of the table
+     */
+    Threading threading() default Threading.SINGLE;
+}
@@ -0,0 +1,334 @@
+package com.github.gjong.advent.processor;
+
+import com.github.gjong.advent.Memoize;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.type.TypeKind;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * The MemoWriter generates the memo table for a single method annotated with {@link Memoize}.
+ * <p>
+ * Every argument is kept in its own primitive key array of an open-addressing table with linear probing. When all
+ * parameters are ints the table can instead be created with a bound per parameter, in which case the values are kept
+ * in a dense array indexed on the arguments.
+ */
+class MemoWriter {
+    private final ExecutableElement method;
+    private final List<String> names;
+    private final List<String> types;
+    private final String valueType;
+    private final boolean denseSupported;
+    private final Memoize.Threading threading;
+    private final String className;
+
+    MemoWriter(ExecutableElement method) {
+        this.method = method;
+        this.names = method.getParameters().stream()
+                .map(parameter -> parameter.getSimpleName().toString())
+                .toList();
+        this.types = method.getParameters().stream()
+                .map(parameter -> parameter.asType().getKind() == TypeKind.INT ? "int" : "long")
+                .toList();
+        this.valueType = method.getReturnType().getKind() == TypeKind.INT ? "int" : "long";
+        this.denseSupported = types.stream().allMatch("int"::equals);
+        this.threading = method.getAnnotation(Memoize.class).threading();
+        this.className = enclosingNames(method.getEnclosingElement()) + capitalize(method.getSimpleName().toString()) + "Memo";
+    }
+
+    void writeSourceFile(ProcessingEnvironment environment) {
+        var packageName = environment.getElementUtils().getPackageOf(method).getQualifiedName();
+
+        try (var writer = new PrintWriter(environment.getFiler()
+                .createSourceFile(packageName + "." + className, method)
+                .openWriter())) {
+            writer.println("package %s;".formatted(packageName));
+            writer.println();
+            writer.println("import java.util.Arrays;");
+            writer.println();
+            writer.println("/**");
+            writer.println(" * Memo table for {@code %s#%s}, generated from its {@code @Memoize} annotation."
+                    .formatted(method.getEnclosingElement().getSimpleName(), method.getSimpleName()));
+            writer.println(" */");
+            writer.println("public final class %s {".formatted(className));
+            writer.println();
+            writeComputation(writer);
+            writeOuter(writer);
+            writeTable(writer);
+            writer.println("}");
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void writeComputation(PrintWriter writer) {
+        writer.println("    @FunctionalInterface");
+        writer.println("    public interface Computation {");
+        writer.println("        %s compute(%s);".formatted(valueType, parameters()));
+        writer.println("    }");
+        writer.println();
+    }
+
+    private void writeOuter(PrintWriter writer) {
+        if (threading == Memoize.Threading.PER_THREAD) {
+            writer.println("    private final ThreadLocal<Table> tables;");
+        } else {
+            writer.println("    private final Table table;");
+        }
+        writer.println();
+
+        writer.println("    public %s() {".formatted(className));
+        writer.println(threading == Memoize.Threading.PER_THREAD
+                ? "        tables = ThreadLocal.withInitial(Table::new);"
+                : "        table = new Table();");
+        writer.println("    }");
+        writer.println();
+
+        if (denseSupported) {
+            writer.println("    /**");
+            writer.println("     * Create a dense table, every argument must be at least zero and below its bound.");
+            writer.println("     */");
+            writer.println("    public %s(%s) {".formatted(className, joined(name -> "int " + name + "Bound")));
+            writer.println(threading == Memoize.Threading.PER_THREAD
+                    ? "        tables = ThreadLocal.withInitial(() -> new Table(%s));".formatted(joined(name -> name + "Bound"))
+                    : "        table = new Table(%s);".formatted(joined(name -> name + "Bound")));
+            writer.println("    }");
+            writer.println();
+        }
+
+        writer.println("    /**");
+        writer.println("     * The remembered value for the arguments, computing and storing it when it is not yet known.");
+        writer.println("     */");
+        writer.println("    public %s get(%s, Computation computation) {".formatted(valueType, parameters()));
+        var table = threading == Memoize.Threading.PER_THREAD ? "tables.get()" : "table";
+        writer.println("        var memo = %s;".formatted(table));
+        if (threading == Memoize.Threading.CONCURRENT) {
+            writer.println("        synchronized (memo) {");
+            writer.println("            var slot = memo.find(%s);".formatted(arguments()));
+            writer.println("            if (slot >= 0) {");
+            writer.println("                return memo.values[slot];");
+            writer.println("            }");
+            writer.println("        }");
+            writer.println();
+            writer.println("        // computed outside of the lock, the computation recurses into this table");
+            writer.println("        var value = computation.compute(%s);".formatted(arguments()));
+            writer.println("        synchronized (memo) {");
+            writer.println("            memo.put(%s, value);".formatted(arguments()));
+            writer.println("        }");
+        } else {
+            writer.println("        var slot = memo.find(%s);".formatted(arguments()));
+            writer.println("        if (slot >= 0) {");
+            writer.println("            return memo.values[slot];");
+            writer.println("        }");
+            writer.println();
+            writer.println("        var value = computation.compute(%s);".formatted(arguments()));
+            writer.println("        memo.put(%s, value);".formatted(arguments()));
+        }
+        writer.println("        return value;");
+        writer.println("    }");
+        writer.println();
+
+        writer.println("    /**");
+        writer.println("     * The number of remembered values%s.".formatted(
+                threading == Memoize.Threading.PER_THREAD ? " of the calling thread" : ""));
+        writer.println("     */");
+        writer.println("    public int size() {");
+        writer.println(threading == Memoize.Threading.CONCURRENT
+                ? "        synchronized (table) {\n            return table.size;\n        }"
+                : "        return %s.size;".formatted(table));
+        writer.println("    }");
+        writer.println();
+
+        writer.println("    public void clear() {");
+        writer.println(threading == Memoize.Threading.CONCURRENT
+                ? "        synchronized (table) {\n            table.clear();\n        }"
+                : "        %s.clear();".formatted(table));
+        writer.println("    }");
+        writer.println();
+    }
+
+    private void writeTable(PrintWriter writer) {
+        writer.println("    private static final class Table {");
+        if (denseSupported) {
+            writer.println("        private final boolean dense;");
+            names.forEach(name -> writer.println("        private final int %sBound;".formatted(name)));
+        }
+        for (var idx = 0; idx < names.size(); idx++) {
+            writer.println("        private %s[] %sKeys;".formatted(types.get(idx), names.get(idx)));
+        }
+        writer.println("        private %s[] values;".formatted(valueType));
+        writer.println("        private boolean[] used;");
+        writer.println("        private int size;");
+        writer.println("        private int shift;");
+        writer.println();
+
+        writer.println("        private Table() {");
+        if (denseSupported) {
+            writer.println("            dense = false;");
+            names.forEach(name -> writer.println("            %sBound = 0;".formatted(name)));
+        }
+        writer.println("            allocate(16);");
+        writer.println("        }");
+        writer.println();
+
+        if (denseSupported) {
+            writer.println("        private Table(%s) {".formatted(joined(name -> "int " + name + "Bound")));
+            writer.println("            dense = true;");
+            names.forEach(name -> writer.println("            this.%sBound = %sBound;".formatted(name, name)));
+            writer.println("            var cells = %s;".formatted(joined(name -> "(long) " + name + "Bound", " * ")));
+            writer.println("            if (cells > Integer.MAX_VALUE - 8) {");
+            writer.println("                throw new IllegalArgumentException(\"The bounds result in %d cells, which is too large for a dense table.\".formatted(cells));");
+            writer.println("            }");
+            writer.println("            values = new %s[(int) cells];".formatted(valueType));
+            writer.println("            used = new boolean[(int) cells];");
+            writer.println("        }");
+            writer.println();
+        }
+
+        writer.println("        private int find(%s) {".formatted(parameters()));
+        if (denseSupported) {
+            writer.println("            if (dense) {");
+            writer.println("                var idx = denseIndex(%s);".formatted(arguments()));
+            writer.println("                return used[idx] ? idx : -1;");
+            writer.println("            }");
+            writer.println();
+        }
+        writer.println("            var mask = used.length - 1;");
+        writer.println("            for (var idx = slot(%s); used[idx]; idx = (idx + 1) & mask) {".formatted(arguments()));
+        writer.println("                if (%s) {".formatted(keysMatch()));
+        writer.println("                    return idx;");
+        writer.println("                }");
+        writer.println("            }");
+        writer.println("            return -1;");
+        writer.println("        }");
+        writer.println();
+
+        writer.println("        private void put(%s, %s value) {".formatted(parameters(), valueType));
+        if (denseSupported) {
+            writer.println("            if (dense) {");
+            writer.println("                var idx = denseIndex(%s);".formatted(arguments()));
+            writer.println("                if (!used[idx]) {");
+            writer.println("                    used[idx] = true;");
+            writer.println("                    size++;");
+            writer.println("                }");
+            writer.println("                values[idx] = value;");
+            writer.println("                return;");
+            writer.println("            }");
+            writer.println();
+        }
+        writer.println("            if (size >= used.length / 2) {");
+        writer.println("                grow();");
+        writer.println("            }");
+        writer.println("            var mask = used.length - 1;");
+        writer.println("            var idx = slot(%s);".formatted(arguments()));
+        writer.println("            for (; used[idx]; idx = (idx + 1) & mask) {");
+        writer.println("                if (%s) {".formatted(keysMatch()));
+        writer.println("                    values[idx] = value;");
+        writer.println("                    return;");
+        writer.println("                }");
+        writer.println("            }");
+        writer.println("            used[idx] = true;");
+        names.forEach(name -> writer.println("            %sKeys[idx] = %s;".formatted(name, name)));
+        writer.println("            values[idx] = value;");
+        writer.println("            size++;");
+        writer.println("        }");
+        writer.println();
+
+        writer.println("        private void clear() {");
+        writer.println("            Arrays.fill(used, false);");
+        writer.println("            size = 0;");
+        writer.println("        }");
+        writer.println();
+
+        if (denseSupported) {
+            writer.println("        private int denseIndex(%s) {".formatted(parameters()));
+            writer.println("            if (%s) {".formatted(joined(name -> "%s < 0 || %s >= %sBound".formatted(name, name, name), " || ")));
+            writer.println("                throw new IllegalArgumentException(\"Arguments (%s) are outside the bounds of the table.\".formatted(%s));"
+                    .formatted(joined(name -> "%d", ", "), arguments()));
+            writer.println("            }");
+            var index = names.getFirst();
+            for (var idx = 1; idx < names.size(); idx++) {
+                index = "(%s) * %sBound + %s".formatted(index, names.get(idx), names.get(idx));
+            }
+            writer.println("            return %s;".formatted(index));
+            writer.println("        }");
+            writer.println();
+        }
+
+        writer.println("        private int slot(%s) {".formatted(parameters()));
+        writer.println("            var hash = 0L;");
+        names.forEach(name -> writer.println("            hash = (hash ^ %s) * 0x9E3779B97F4A7C15L;".formatted(name)));
+        writer.println("            return (int) (hash >>> shift);");
+        writer.println("        }");
+        writer.println();
+
+        writer.println("        private void grow() {");
+        names.forEach(name -> writer.println("            var old%sKeys = %sKeys;".formatted(capitalize(name), name)));
+        writer.println("            var oldValues = values;");
+        writer.println("            var oldUsed = used;");
+        writer.println("            allocate(oldUsed.length * 2);");
+        writer.println("            for (var idx = 0; idx < oldUsed.length; idx++) {");
+        writer.println("                if (oldUsed[idx]) {");
+        writer.println("                    put(%s, oldValues[idx]);".formatted(joined(name -> "old%sKeys[idx]".formatted(capitalize(name)))));
+        writer.println("                }");
+        writer.println("            }");
+        writer.println("        }");
+        writer.println();
+
+        writer.println("        private void allocate(int capacity) {");
+        for (var idx = 0; idx < names.size(); idx++) {
+            writer.println("            %sKeys = new %s[capacity];".formatted(names.get(idx), types.get(idx)));
+        }
+        writer.println("            values = new %s[capacity];".formatted(valueType));
+        writer.println("            used = new boolean[capacity];");
+        writer.println("            shift = Long.numberOfLeadingZeros(capacity - 1);");
+        writer.println("            size = 0;");
+        writer.println("        }");
+        writer.println("    }");
+    }
+
+    private String parameters() {
+        return IntStream.range(0, names.size())
+                .mapToObj(idx -> types.get(idx) + " " + names.get(idx))
+                .collect(Collectors.joining(", "));
+    }
+
+    private String arguments() {
+        return String.join(", ", names);
+    }
+
+    private String keysMatch() {
+        return joined(name -> "%sKeys[idx] == %s".formatted(name, name), " && ");
+    }
+
+    private String joined(Function<String, String> mapper) {
+        return joined(mapper, ", ");
+    }
+
+    private String joined(Function<String, String> mapper, String separator) {
+        return names.stream()
+                .map(mapper)
+                .collect(Collectors.joining(separator));
+    }
+
+    private static String enclosingNames(Element element) {
+        var simpleNames = new ArrayList<String>();
+        for (var current = element; !(current instanceof PackageElement); current = current.getEnclosingElement()) {
+            simpleNames.addFirst(current.getSimpleName().toString());
+        }
+        return String.join("", simpleNames);
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
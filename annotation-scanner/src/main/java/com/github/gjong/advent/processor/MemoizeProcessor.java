@@ -0,0 +1,69 @@
+package com.github.gjong.advent.processor;
+
+import com.github.gjong.advent.Memoize;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedSourceVersion;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.util.Set;
+
+/**
+ * A processor generating a primitive keyed memo table for every method annotated with {@link Memoize}.
+ * <p>
+ * The annotated method is validated to only use {@code int} and {@code long} parameters and to return either of
+ * them, after which the {@link MemoWriter} generates the table in the package of the enclosing class.
+ */
+@SupportedAnnotationTypes({"com.github.gjong.advent.Memoize"})
+@SupportedSourceVersion(SourceVersion.RELEASE_21)
+public class MemoizeProcessor extends AbstractProcessor {
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (var method : ElementFilter.methodsIn(roundEnv.getElementsAnnotatedWith(Memoize.class))) {
+            if (isSupported(method)) {
+                try {
+                    new MemoWriter(method).writeSourceFile(processingEnv);
+                } catch (Exception e) {
+                    processingEnv.getMessager()
+                            .printMessage(Diagnostic.Kind.ERROR, "Exception occurred %s".formatted(e), method);
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isSupported(ExecutableElement method) {
+        var messager = processingEnv.getMessager();
+        if (method.getParameters().isEmpty()) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "A memoized method needs at least one parameter.", method);
+            return false;
+        }
+
+        for (var parameter : method.getParameters()) {
+            if (!isPrimitiveKey(parameter.asType().getKind())) {
+                messager.printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Parameter %s of a memoized method must be an int or long.".formatted(parameter.getSimpleName()),
+                        parameter);
+                return false;
+            }
+        }
+
+        if (!isPrimitiveKey(method.getReturnType().getKind())) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "A memoized method must return an int or long.", method);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isPrimitiveKey(TypeKind kind) {
+        return kind == TypeKind.INT || kind == TypeKind.LONG;
+    }
+}
@@ -1,11 +1,15 @@
 package com.github.gjong.advent;
 
 import ch.qos.logback.classic.Level;
+import com.github.gjong.advent.common.InputCache;
+import com.github.gjong.advent.reporter.BenchmarkEngine;
+import com.github.gjong.advent.reporter.BenchmarkScheduler;
 import com.github.gjong.advent.reporter.BenchmarkSuite;
 import com.github.gjong.advent.reporter.ReportWriterFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class AdventOfCode {
@@ -32,10 +36,17 @@ public class AdventOfCode {
                     .setLevel(Level.DEBUG);
         }
 
+        if (!arguments.inputCache()) {
+            InputCache.instance().disable();
+        }
+
         var numberOfRuns = determineNumberOfRuns(arguments);
+        var warmupRuns = determineWarmupRuns(arguments);
+        var engine = new BenchmarkEngine(warmupRuns, numberOfRuns);
         var reportWriter = ReportWriterFactory.create(arguments.getReportFormat());
-        LOGGER.info("Running with {} benchmark runs.", numberOfRuns);
+        LOGGER.info("Running with {} benchmark runs and {} warmup runs.", numberOfRuns, warmupRuns);
 
+        var suites = new ArrayList<BenchmarkSuite>();
         for (var year : runYears) {
             List<DaySolver> solverList;
             if (arguments.day() > -1) {
@@ -44,9 +55,14 @@ public class AdventOfCode {
                 solverList = SolutionProvider.instance().provide(year);
             }
 
-            var suite = new BenchmarkSuite(numberOfRuns, year, solverList);
-            suite.execute();
-            reportWriter.writeResults(suite);
+            suites.add(new BenchmarkSuite(engine, year, solverList));
+        }
+
+        var scheduler = new BenchmarkScheduler(arguments.workers(), arguments.isolated());
+        var wallTime = scheduler.execute(suites);
+        suites.forEach(reportWriter::writeResults);
+        if (arguments.throughput()) {
+            scheduler.reportThroughput(suites, wallTime);
         }
     }
 
@@ -55,4 +71,10 @@ public class AdventOfCode {
                 parser.benchMarkRuns()
                 : 1;
     }
+
+    private static int determineWarmupRuns(CliParser parser) {
+        return parser.benchmarkMode() ?
+                parser.warmupRuns()
+                : 0;
+    }
 }
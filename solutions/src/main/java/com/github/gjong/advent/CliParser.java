@@ -10,7 +10,12 @@ class CliParser {
     private boolean shouldRun = true;
     private boolean benchmarkMode = false;
     private boolean debugLogging = false;
+    private boolean isolated = false;
+    private boolean throughput = false;
+    private boolean inputCache = true;
+    private int workers = 1;
     private int benchMarkRuns = 5;
+    private int warmupRuns = 2;
     private int runYear = -1;
     private int runDay = -1;
     private String reportFormat = "logger";
@@ -24,6 +29,11 @@ class CliParser {
                     logger.info("\t-d <day>\t\tExecute only the provided day, requires year.");
                     logger.info("\t-b \t\t\t\tRun in benchmark mode.");
                     logger.info("\t-r \t\t\t\tNumber of runs in benchmark mode, default 5.");
+                    logger.info("\t-w \t\t\t\tNumber of warmup runs in benchmark mode, default 2.");
+                    logger.info("\t-p <workers>\tNumber of days benchmarked in parallel, default 1.");
+                    logger.info("\t-i \t\t\t\tIsolate measured runs, a day is measured while no other day runs.");
+                    logger.info("\t-t \t\t\t\tReport the total wall time of all solutions.");
+                    logger.info("\t-c \t\t\t\tDisable the input cache, every run parses the input again.");
                     logger.info("\t-o \t\t\t\tOutput formatter, default logger.");
                     logger.info("\t-x \t\t\t\tEnable debug logging.");
                     logger.info("\n\nSupported years: {}", SolutionProvider.instance().listYears());
@@ -35,6 +45,21 @@ class CliParser {
                 case "-r":
                     benchMarkRuns = Integer.parseInt(args[++idx]);
                     break;
+                case "-w":
+                    warmupRuns = Integer.parseInt(args[++idx]);
+                    break;
+                case "-p":
+                    workers = Integer.parseInt(args[++idx]);
+                    break;
+                case "-i":
+                    isolated = true;
+                    break;
+                case "-t":
+                    throughput = true;
+                    break;
+                case "-c":
+                    inputCache = false;
+                    break;
                 case "-y":
                     runYear = Integer.parseInt(args[++idx]);
                     break;
@@ -79,4 +104,24 @@ class CliParser {
         return benchMarkRuns;
     }
 
+    public int warmupRuns() {
+        return warmupRuns;
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    public boolean isolated() {
+        return isolated;
+    }
+
+    public boolean throughput() {
+        return throughput;
+    }
+
+    public boolean inputCache() {
+        return inputCache;
+    }
+
 }
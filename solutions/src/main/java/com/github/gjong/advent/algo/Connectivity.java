@@ -0,0 +1,74 @@
+package com.github.gjong.advent.algo;
+
+import java.util.Arrays;
+
+/**
+ * Answers connectivity questions over a state space that is blocked one state at a time, as used in puzzles where
+ * obstacles keep falling until a route is cut.
+ * <p>
+ * Instead of searching again after every insertion the insertions are undone in reverse order. Starting from the
+ * fully blocked space every freed state is merged with its free neighbours in a {@link UnionFind}, the first time
+ * both ends are connected marks the insertion that cut them. This takes near linear time in the number of states.
+ */
+public class Connectivity {
+
+    private Connectivity() {
+    }
+
+    /**
+     * Find the insertion that disconnects the source from the target.
+     *
+     * @param states     the number of states
+     * @param graph      the neighbours of every state when nothing is blocked, costs are ignored
+     * @param insertions the states in the order they get blocked, repeated states are ignored
+     * @return the index in the insertions after which source and target are no longer connected, or -1 when they
+     * stay connected
+     */
+    public static int firstDisconnect(int states, PathFinding.Graph graph, int[] insertions, int source, int target) {
+        // the first insertion of a state is the one that blocks it
+        var blockedAt = new int[states];
+        Arrays.fill(blockedAt, Integer.MAX_VALUE);
+        for (var idx = insertions.length - 1; idx >= 0; idx--) {
+            blockedAt[insertions[idx]] = idx;
+        }
+
+        var sets = new UnionFind(states);
+        for (var state = 0; state < states; state++) {
+            if (blockedAt[state] == Integer.MAX_VALUE) {
+                join(graph, sets, blockedAt, state, Integer.MAX_VALUE);
+            }
+        }
+        if (sets.connected(source, target) && isFree(blockedAt, source, Integer.MAX_VALUE)) {
+            return -1;
+        }
+
+        for (var idx = insertions.length - 1; idx >= 0; idx--) {
+            var state = insertions[idx];
+            if (blockedAt[state] != idx) {
+                continue;
+            }
+
+            join(graph, sets, blockedAt, state, idx);
+            if (isFree(blockedAt, source, idx) && isFree(blockedAt, target, idx) && sets.connected(source, target)) {
+                return idx;
+            }
+        }
+
+        throw new IllegalStateException("Source and target are not connected, even without any insertions.");
+    }
+
+    /**
+     * Merge the state with all neighbours that are free while the insertions before the given index are applied.
+     */
+    private static void join(PathFinding.Graph graph, UnionFind sets, int[] blockedAt, int state, int insertion) {
+        graph.neighbours(state, (neighbour, cost) -> {
+            if (isFree(blockedAt, neighbour, insertion)) {
+                sets.union(state, neighbour);
+            }
+        });
+    }
+
+    private static boolean isFree(int[] blockedAt, int state, int insertion) {
+        return blockedAt[state] >= insertion;
+    }
+}
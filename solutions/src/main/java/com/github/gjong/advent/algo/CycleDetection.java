@@ -0,0 +1,102 @@
+package com.github.gjong.advent.algo;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Detects the cycle in a deterministic sequence of states, as found in puzzles asking for the state after an
+ * enormous number of steps.
+ * <p>
+ * States are compared on a 64-bit fingerprint only, no history of states is kept. Brent's algorithm needs a single
+ * running state to find the cycle length, the start of the cycle is then found by replaying two fresh states from
+ * the initial one. Memory use is therefore independent of the number of steps before the cycle starts.
+ */
+public class CycleDetection {
+
+    /**
+     * A cycle of the given length, first entered after {@code start} steps.
+     */
+    public record Cycle(long start, long length) {
+        /**
+         * The smallest number of steps that results in the same state as taking the given number of steps.
+         */
+        public long equivalent(long steps) {
+            if (steps < start) {
+                return steps;
+            }
+            return start + (steps - start) % length;
+        }
+    }
+
+    private CycleDetection() {
+    }
+
+    /**
+     * Find the cycle using Brent's algorithm.
+     *
+     * @param initial     creates a fresh state at step zero, called up to three times
+     * @param step        advances a state by a single step, in place
+     * @param fingerprint a 64-bit hash of a state, equal states must have equal fingerprints
+     */
+    public static <S> Cycle brent(Supplier<S> initial, Consumer<S> step, ToLongFunction<S> fingerprint) {
+        return brent(initial, step, fingerprint, Long.MAX_VALUE).orElseThrow();
+    }
+
+    /**
+     * Find the cycle using Brent's algorithm, giving up once the cycle has not closed after the given number of
+     * steps. Useful when simply taking the steps is cheaper than searching for a long cycle.
+     */
+    public static <S> Optional<Cycle> brent(
+            Supplier<S> initial,
+            Consumer<S> step,
+            ToLongFunction<S> fingerprint,
+            long maxSteps) {
+        // find the cycle length by moving the tortoise to the hare at every power of two
+        var hare = initial.get();
+        var tortoise = fingerprint.applyAsLong(hare);
+        step.accept(hare);
+        var power = 1L;
+        var length = 1L;
+        var taken = 1L;
+        while (tortoise != fingerprint.applyAsLong(hare)) {
+            if (taken++ >= maxSteps) {
+                return Optional.empty();
+            }
+            if (power == length) {
+                tortoise = fingerprint.applyAsLong(hare);
+                power *= 2;
+                length = 0;
+            }
+            step.accept(hare);
+            length++;
+        }
+
+        // with the hare a full cycle ahead, both meet at the start of the cycle
+        var behind = initial.get();
+        var ahead = initial.get();
+        for (var i = 0L; i < length; i++) {
+            step.accept(ahead);
+        }
+        var start = 0L;
+        while (fingerprint.applyAsLong(behind) != fingerprint.applyAsLong(ahead)) {
+            step.accept(behind);
+            step.accept(ahead);
+            start++;
+        }
+
+        return Optional.of(new Cycle(start, length));
+    }
+
+    /**
+     * Advance a fresh state by the given number of steps, skipping all full cycles.
+     */
+    public static <S> S replay(Cycle cycle, long steps, Supplier<S> initial, Consumer<S> step) {
+        var state = initial.get();
+        for (var i = cycle.equivalent(steps); i > 0; i--) {
+            step.accept(state);
+        }
+        return state;
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.gjong.advent.algo;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min heap over the int states {@code 0 .. capacity - 1}, ordered on an int priority. Every state is
+ * present at most once, offering a state that is already queued only lowers its priority. This avoids the stale
+ * entries a lazy deletion queue builds up.
+ */
+public class IntMinHeap {
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+    private final int[] priorities;
+    private final int[] positions;
+    private int size;
+
+    public IntMinHeap(int capacity) {
+        heap = new int[capacity];
+        priorities = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int state) {
+        return positions[state] != ABSENT;
+    }
+
+    /**
+     * Add the state to the heap, or lower its priority when it is already queued with a higher priority.
+     *
+     * @return true if the heap was changed
+     */
+    public boolean offer(int state, int priority) {
+        var position = positions[state];
+        if (position == ABSENT) {
+            heap[size] = state;
+            positions[state] = size;
+            priorities[state] = priority;
+            siftUp(size++);
+            return true;
+        }
+
+        if (priority < priorities[state]) {
+            priorities[state] = priority;
+            siftUp(position);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The priority the state is queued with, only valid while the state is in the heap.
+     */
+    public int priority(int state) {
+        return priorities[state];
+    }
+
+    /**
+     * Remove and return the state with the lowest priority.
+     */
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+
+        var top = heap[0];
+        positions[top] = ABSENT;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    public void clear() {
+        for (var idx = 0; idx < size; idx++) {
+            positions[heap[idx]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        var state = heap[position];
+        var priority = priorities[state];
+        while (position > 0) {
+            var parent = (position - 1) >>> 1;
+            if (priorities[heap[parent]] <= priority) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(state, position);
+    }
+
+    private void siftDown(int position) {
+        var state = heap[position];
+        var priority = priorities[state];
+        var half = size >>> 1;
+        while (position < half) {
+            var child = 2 * position + 1;
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]]) {
+                child++;
+            }
+            if (priority <= priorities[heap[child]]) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(state, position);
+    }
+
+    private void move(int state, int position) {
+        heap[position] = state;
+        positions[state] = position;
+    }
+}
@@ -0,0 +1,82 @@
+package com.github.gjong.advent.algo;
+
+import java.util.Arrays;
+
+/**
+ * Decides whether a target can be produced by placing operators between a sequence of operands, evaluated strictly
+ * left to right. All values must be zero or positive.
+ * <p>
+ * The search works backwards from the target: every operator is undone against the last operand, which immediately
+ * rules out most branches. A multiplication can only be undone when the operand divides the target, a concatenation
+ * only when the target ends in the digits of the operand.
+ * <p>
+ * Multiplying by zero cannot be undone into a single left hand value, as every left hand value produces zero. The
+ * operands are never negative, so a zero target with a last operand of zero is always reachable when
+ * {@link #MULTIPLY} is one of the operators.
+ */
+public class OperatorSolver {
+    /**
+     * Returned by {@link Operator#undo(long, long)} when the operator cannot have produced the target.
+     */
+    public static final long IMPOSSIBLE = -1;
+
+    /**
+     * A binary operator that can be reversed given its result and the right hand operand.
+     */
+    @FunctionalInterface
+    public interface Operator {
+        /**
+         * Compute the left hand operand for which {@code left op operand == target}, or {@link #IMPOSSIBLE}.
+         */
+        long undo(long target, long operand);
+    }
+
+    public static final Operator ADD = (target, operand) -> target >= operand ? target - operand : IMPOSSIBLE;
+
+    public static final Operator MULTIPLY = (target, operand) ->
+            operand != 0 && target % operand == 0 ? target / operand : IMPOSSIBLE;
+
+    public static final Operator CONCATENATE = (target, operand) -> {
+        var magnitude = 10L;
+        while (magnitude <= operand) {
+            magnitude *= 10;
+        }
+        return target % magnitude == operand ? target / magnitude : IMPOSSIBLE;
+    };
+
+    private final Operator[] operators;
+    private final boolean multiplies;
+
+    public OperatorSolver(Operator... operators) {
+        this.operators = operators.clone();
+        this.multiplies = Arrays.asList(operators).contains(MULTIPLY);
+    }
+
+    /**
+     * Whether the target can be produced from the operands, in order.
+     */
+    public boolean reachable(long target, long[] operands) {
+        return reachable(target, operands, 0, operands.length);
+    }
+
+    /**
+     * Whether the target can be produced from the operands in the range {@code from} up to {@code to}, exclusive.
+     */
+    public boolean reachable(long target, long[] operands, int from, int to) {
+        if (to - from == 1) {
+            return target == operands[from];
+        }
+
+        var last = operands[to - 1];
+        if (last == 0 && target == 0 && multiplies) {
+            return true;
+        }
+        for (var operator : operators) {
+            var remaining = operator.undo(target, last);
+            if (remaining != IMPOSSIBLE && reachable(remaining, operands, from, to - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,38 +1,211 @@
 package com.github.gjong.advent.algo;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.function.Predicate;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
 
+/**
+ * Shortest path searches over a state space where every state is identified by an int from {@code 0} up to the
+ * number of states. Solvers encode their state, like a grid position combined with a direction, into such an index
+ * and describe the edges using a {@link Graph}. All bookkeeping is done in flat arrays, no objects are created per
+ * state or per edge.
+ * <p>
+ * A search is configured fluently and started using one of the strategies:
+ * <pre>{@code
+ * var paths = PathFinding.over(grid.rows() * grid.cols(), this::neighbours)
+ *         .from(start)
+ *         .until(state -> state == end)
+ *         .dial(1);
+ * }</pre>
+ */
 public class PathFinding {
 
-    public static <T extends Node<T>> Optional<T> dijkstra(List<T> start,
-                                                   Predicate<T> desiredPoint) {
-        var toVisit = new PriorityQueue<T>();
+    /**
+     * Receives the edges leaving a single state.
+     */
+    @FunctionalInterface
+    public interface Edges {
+        void add(int target, int cost);
+    }
+
+    /**
+     * Describes the outgoing edges of every state, all costs must be zero or positive.
+     */
+    @FunctionalInterface
+    public interface Graph {
+        void neighbours(int state, Edges edges);
+    }
+
+    private PathFinding() {
+    }
+
+    public static Search over(int states, Graph graph) {
+        return new Search(states, graph);
+    }
+
+    public static class Search implements Edges {
+        private final int states;
+        private final Graph graph;
+        private int[] sources = new int[0];
+        private IntPredicate target = state -> false;
+
+        private int[] distances;
+        private int[] predecessors;
+        private int current;
+        private IntUnaryOperator heuristic;
+        private IntMinHeap heap;
+        private DialBuckets buckets;
+
+        private Search(int states, Graph graph) {
+            this.states = states;
+            this.graph = graph;
+        }
+
+        /**
+         * The states the search starts from, all at a distance of zero.
+         */
+        public Search from(int... sources) {
+            this.sources = sources.clone();
+            return this;
+        }
+
+        /**
+         * Stop the search as soon as a state matching the predicate is settled. Without a target every reachable
+         * state is settled.
+         */
+        public Search until(IntPredicate target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Dijkstra's algorithm using a binary heap, suitable for any non-negative cost.
+         */
+        public ShortestPaths dijkstra() {
+            return aStar(state -> 0);
+        }
+
+        /**
+         * A* using a binary heap. The heuristic estimates the remaining cost of a state to the nearest target and
+         * must never overestimate it.
+         */
+        public ShortestPaths aStar(IntUnaryOperator heuristic) {
+            prepare();
+            this.heuristic = heuristic;
+            heap = new IntMinHeap(states);
+            for (var source : sources) {
+                heap.offer(source, heuristic.applyAsInt(source));
+            }
+
+            while (!heap.isEmpty()) {
+                current = heap.poll();
+                if (target.test(current)) {
+                    return new ShortestPaths(distances, predecessors, current);
+                }
+                graph.neighbours(current, this);
+            }
+            return new ShortestPaths(distances, predecessors, -1);
+        }
 
-        toVisit.addAll(start);
-        while (!toVisit.isEmpty()) {
-            var visit = toVisit.poll();
-            if (desiredPoint.test(visit)) {
-                return Optional.of(visit);
+        /**
+         * Dijkstra's algorithm using a ring of buckets, one per distance. Every pop and push is constant time, which
+         * outperforms a heap when all edge costs are small integers.
+         *
+         * @param maxCost the highest cost of a single edge
+         */
+        public ShortestPaths dial(int maxCost) {
+            prepare();
+            heuristic = null;
+            buckets = new DialBuckets(maxCost + 1);
+            for (var source : sources) {
+                buckets.push(0, source);
             }
-            if (visit.visited()) {
-                continue;
+
+            for (var distance = 0; !buckets.isEmpty(); distance++) {
+                while (buckets.hasNext(distance)) {
+                    current = buckets.pop(distance);
+                    if (distances[current] != distance) {
+                        // a shorter route was found after this entry was queued
+                        continue;
+                    }
+                    if (target.test(current)) {
+                        return new ShortestPaths(distances, predecessors, current);
+                    }
+                    graph.neighbours(current, this);
+                }
             }
+            return new ShortestPaths(distances, predecessors, -1);
+        }
 
-            visit.visit();
-            for (var neighbour : visit.neighbours()) {
-                var updatedCost = visit.cost() + neighbour.cost();
+        @Override
+        public void add(int next, int cost) {
+            var distance = distances[current] + cost;
+            if (distance >= distances[next]) {
+                return;
+            }
 
-                if (neighbour.node().cost() > updatedCost) {
-                    neighbour.node().setOrigin(visit);
-                    neighbour.node().setCost(updatedCost);
-                    toVisit.add(neighbour.node());
+            distances[next] = distance;
+            predecessors[next] = current;
+            if (heuristic != null) {
+                heap.offer(next, distance + heuristic.applyAsInt(next));
+            } else {
+                if (cost >= buckets.size()) {
+                    throw new IllegalArgumentException("Edge cost %d exceeds the maximum of %d.".formatted(cost, buckets.size() - 1));
                 }
+                buckets.push(distance, next);
+            }
+        }
+
+        private void prepare() {
+            distances = new int[states];
+            predecessors = new int[states];
+            Arrays.fill(distances, ShortestPaths.UNREACHABLE);
+            Arrays.fill(predecessors, -1);
+            for (var source : sources) {
+                distances[source] = 0;
+            }
+        }
+    }
+
+    /**
+     * A ring of buckets indexed by distance modulo the number of buckets. As no edge is more expensive than the
+     * number of buckets minus one, a bucket is always drained before it is reused for a larger distance.
+     */
+    private static class DialBuckets {
+        private final int[][] buckets;
+        private final int[] sizes;
+        private int pending;
+
+        private DialBuckets(int count) {
+            buckets = new int[count][16];
+            sizes = new int[count];
+        }
+
+        int size() {
+            return buckets.length;
+        }
+
+        boolean isEmpty() {
+            return pending == 0;
+        }
+
+        boolean hasNext(int distance) {
+            return sizes[distance % buckets.length] > 0;
+        }
+
+        void push(int distance, int state) {
+            var idx = distance % buckets.length;
+            if (sizes[idx] == buckets[idx].length) {
+                buckets[idx] = Arrays.copyOf(buckets[idx], sizes[idx] * 2);
             }
+            buckets[idx][sizes[idx]++] = state;
+            pending++;
         }
 
-        return Optional.empty();
+        int pop(int distance) {
+            var idx = distance % buckets.length;
+            pending--;
+            return buckets[idx][--sizes[idx]];
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.github.gjong.advent.algo;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Splits texts into words of a fixed vocabulary. The vocabulary is stored once in a trie of int arrays, after which
+ * any number of texts can be checked, also concurrently.
+ * <p>
+ * Segmentations are counted using a dynamic program running from the end of the text: the number of ways to split
+ * the text from an offset is the sum over all words starting at that offset of the ways to split the text after the
+ * word. Every offset walks the trie at most as deep as the longest word, so a text of length n takes
+ * {@code O(n * maxWordLength)} without creating any substrings.
+ */
+public class Segmentation {
+    private static final int NONE = -1;
+
+    private final int[] alphabet = new int[128];
+    private final int alphabetSize;
+    private int[] children;
+    private boolean[] terminal;
+    private int nodes;
+
+    public Segmentation(Collection<? extends CharSequence> words) {
+        Arrays.fill(alphabet, NONE);
+        var letters = 0;
+        var totalLength = 1;
+        for (var word : words) {
+            totalLength += word.length();
+            for (var idx = 0; idx < word.length(); idx++) {
+                var letter = word.charAt(idx);
+                if (letter >= alphabet.length) {
+                    throw new IllegalArgumentException("Only ASCII words are supported, found '%s'.".formatted(word));
+                }
+                if (alphabet[letter] == NONE) {
+                    alphabet[letter] = letters++;
+                }
+            }
+        }
+        alphabetSize = Math.max(letters, 1);
+
+        children = new int[totalLength * alphabetSize];
+        terminal = new boolean[totalLength];
+        Arrays.fill(children, NONE);
+        nodes = 1;
+        for (var word : words) {
+            insert(word);
+        }
+    }
+
+    /**
+     * The number of distinct ways the text can be split into words.
+     */
+    public long count(CharSequence text) {
+        var ways = new long[text.length() + 1];
+        ways[text.length()] = 1;
+        for (var start = text.length() - 1; start >= 0; start--) {
+            var total = 0L;
+            var node = 0;
+            for (var end = start; end < text.length() && (node = child(node, text.charAt(end))) != NONE; end++) {
+                if (terminal[node]) {
+                    total += ways[end + 1];
+                }
+            }
+            ways[start] = total;
+        }
+        return ways[0];
+    }
+
+    /**
+     * Whether the text can be split into words at all, which stops at the first split found for every offset.
+     */
+    public boolean matches(CharSequence text) {
+        var possible = new boolean[text.length() + 1];
+        possible[text.length()] = true;
+        for (var start = text.length() - 1; start >= 0; start--) {
+            var node = 0;
+            for (var end = start; end < text.length() && (node = child(node, text.charAt(end))) != NONE; end++) {
+                if (terminal[node] && possible[end + 1]) {
+                    possible[start] = true;
+                    break;
+                }
+            }
+        }
+        return possible[0];
+    }
+
+    private void insert(CharSequence word) {
+        var node = 0;
+        for (var idx = 0; idx < word.length(); idx++) {
+            var slot = node * alphabetSize + alphabet[word.charAt(idx)];
+            if (children[slot] == NONE) {
+                children[slot] = nodes++;
+            }
+            node = children[slot];
+        }
+        terminal[node] = true;
+    }
+
+    private int child(int node, char letter) {
+        if (letter >= alphabet.length || alphabet[letter] == NONE) {
+            return NONE;
+        }
+        return children[node * alphabetSize + alphabet[letter]];
+    }
+}
@@ -0,0 +1,74 @@
+package com.github.gjong.advent.algo;
+
+/**
+ * The outcome of a search by {@link PathFinding}, holding the best known distance and predecessor of every state that
+ * was reached.
+ */
+public class ShortestPaths {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    private final int[] distances;
+    private final int[] predecessors;
+    private final int target;
+
+    ShortestPaths(int[] distances, int[] predecessors, int target) {
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.target = target;
+    }
+
+    /**
+     * The target state the search stopped on, or -1 when no target was reached.
+     */
+    public int target() {
+        return target;
+    }
+
+    public boolean found() {
+        return target >= 0;
+    }
+
+    /**
+     * The distance to the target state the search stopped on.
+     *
+     * @throws IllegalStateException when no target was reached
+     */
+    public int cost() {
+        if (!found()) {
+            throw new IllegalStateException("No path found.");
+        }
+        return distances[target];
+    }
+
+    /**
+     * The distance to the state, or {@link #UNREACHABLE}. When the search stopped at a target the distance of states
+     * further away than that target may not be final.
+     */
+    public int distance(int state) {
+        return distances[state];
+    }
+
+    public boolean reachable(int state) {
+        return distances[state] != UNREACHABLE;
+    }
+
+    /**
+     * All states on the path from a source up to and including the given state.
+     */
+    public int[] path(int state) {
+        if (!reachable(state)) {
+            return new int[0];
+        }
+
+        var length = 0;
+        for (var current = state; current >= 0; current = predecessors[current]) {
+            length++;
+        }
+
+        var path = new int[length];
+        for (var current = state; current >= 0; current = predecessors[current]) {
+            path[--length] = current;
+        }
+        return path;
+    }
+}
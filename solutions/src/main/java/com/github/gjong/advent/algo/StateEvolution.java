@@ -0,0 +1,361 @@
+package com.github.gjong.advent.algo;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Evolves a multiset of states where every state turns into a fixed multiset of states each step, as with the
+ * lanternfish, polymer pairs or pebbles puzzles. Only the number of items per state is tracked, never the items
+ * themselves.
+ * <p>
+ * All states reachable from the seeds are interned once, the transitions are kept as a sparse matrix. A number of
+ * steps is applied either one step at a time, costing {@code O(steps * transitions)}, or by repeated squaring of the
+ * dense transition matrix, costing {@code O(states³ * log(steps))}, whichever is cheaper.
+ * <p>
+ * Counting is done in longs using exact arithmetic. Once a count overflows the evolution is redone using
+ * {@link BigInteger}, so the result is always exact.
+ */
+public class StateEvolution<S> {
+
+    /**
+     * Receives the states a single item turns into after one step.
+     */
+    @FunctionalInterface
+    public interface Transitions<S> {
+        void add(S target, long multiplicity);
+
+        default void add(S target) {
+            add(target, 1);
+        }
+    }
+
+    /**
+     * Describes what a single item in the given state turns into after one step.
+     */
+    @FunctionalInterface
+    public interface Successors<S> {
+        void of(S state, Transitions<S> transitions);
+    }
+
+    private final Map<S, Integer> ids;
+    private final List<S> states;
+    // the transitions in compressed sparse rows, indexed by the source state
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] multiplicities;
+
+    private StateEvolution(Map<S, Integer> ids, List<S> states, int[] offsets, int[] targets, long[] multiplicities) {
+        this.ids = ids;
+        this.states = states;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.multiplicities = multiplicities;
+    }
+
+    /**
+     * Intern all states reachable from the seeds and record their transitions.
+     */
+    public static <S> StateEvolution<S> explore(Collection<? extends S> seeds, Successors<S> successors) {
+        var ids = new HashMap<S, Integer>();
+        var states = new ArrayList<S>();
+        for (var seed : seeds) {
+            if (ids.putIfAbsent(seed, states.size()) == null) {
+                states.add(seed);
+            }
+        }
+
+        var offsets = new int[16];
+        var targets = new int[16];
+        var multiplicities = new long[16];
+        var transitions = 0;
+        for (var source = 0; source < states.size(); source++) {
+            if (source + 1 >= offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            offsets[source] = transitions;
+
+            var found = new ArrayList<Integer>();
+            var counts = new ArrayList<Long>();
+            successors.of(states.get(source), (target, multiplicity) -> {
+                var id = ids.get(target);
+                if (id == null) {
+                    id = states.size();
+                    ids.put(target, id);
+                    states.add(target);
+                }
+                found.add(id);
+                counts.add(multiplicity);
+            });
+
+            if (transitions + found.size() > targets.length) {
+                var capacity = Math.max(targets.length * 2, transitions + found.size());
+                targets = Arrays.copyOf(targets, capacity);
+                multiplicities = Arrays.copyOf(multiplicities, capacity);
+            }
+            for (var idx = 0; idx < found.size(); idx++) {
+                targets[transitions] = found.get(idx);
+                multiplicities[transitions] = counts.get(idx);
+                transitions++;
+            }
+        }
+        offsets = Arrays.copyOf(offsets, states.size() + 1);
+        offsets[states.size()] = transitions;
+
+        return new StateEvolution<>(
+                Map.copyOf(ids),
+                List.copyOf(states),
+                offsets,
+                Arrays.copyOf(targets, transitions),
+                Arrays.copyOf(multiplicities, transitions));
+    }
+
+    /**
+     * The number of distinct states reachable from the seeds.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * An empty population to put the starting items in.
+     */
+    public Population population() {
+        return new Population(new long[states.size()], null);
+    }
+
+    /**
+     * The population after the given number of steps, the starting population is left untouched.
+     */
+    public Population evolve(Population start, long steps) {
+        if (steps < 0) {
+            throw new IllegalArgumentException("Cannot evolve %d steps back in time.".formatted(steps));
+        }
+
+        var stepwise = (double) steps * targets.length
+                <= Math.pow(states.size(), 3) * (64 - Long.numberOfLeadingZeros(steps));
+        if (start.large == null) {
+            try {
+                var counts = stepwise ? iterate(start.counts, steps) : jump(start.counts, steps);
+                return new Population(counts, null);
+            } catch (ArithmeticException overflow) {
+                // redo the evolution with arbitrary precision
+            }
+        }
+
+        var large = start.asLarge();
+        return new Population(null, stepwise ? iterate(large, steps) : jump(large, steps));
+    }
+
+    private long[] iterate(long[] counts, long steps) {
+        var current = counts.clone();
+        var next = new long[counts.length];
+        for (var step = 0L; step < steps; step++) {
+            Arrays.fill(next, 0);
+            for (var source = 0; source < current.length; source++) {
+                if (current[source] == 0) {
+                    continue;
+                }
+                for (var idx = offsets[source]; idx < offsets[source + 1]; idx++) {
+                    var added = Math.multiplyExact(current[source], multiplicities[idx]);
+                    next[targets[idx]] = Math.addExact(next[targets[idx]], added);
+                }
+            }
+
+            var swap = current;
+            current = next;
+            next = swap;
+        }
+        return current;
+    }
+
+    private BigInteger[] iterate(BigInteger[] counts, long steps) {
+        var current = counts.clone();
+        for (var step = 0L; step < steps; step++) {
+            var next = zeros(counts.length);
+            for (var source = 0; source < current.length; source++) {
+                if (current[source].signum() == 0) {
+                    continue;
+                }
+                for (var idx = offsets[source]; idx < offsets[source + 1]; idx++) {
+                    var added = current[source].multiply(BigInteger.valueOf(multiplicities[idx]));
+                    next[targets[idx]] = next[targets[idx]].add(added);
+                }
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    /**
+     * Apply the transition matrix to the power of steps, built from the squares matching the bits of steps.
+     */
+    private long[] jump(long[] counts, long steps) {
+        var size = states.size();
+        var power = new long[size][size];
+        for (var source = 0; source < size; source++) {
+            for (var idx = offsets[source]; idx < offsets[source + 1]; idx++) {
+                power[targets[idx]][source] = Math.addExact(power[targets[idx]][source], multiplicities[idx]);
+            }
+        }
+
+        var current = counts.clone();
+        for (var remaining = steps; remaining > 0; remaining >>>= 1) {
+            if ((remaining & 1) == 1) {
+                var next = new long[size];
+                for (var row = 0; row < size; row++) {
+                    var sum = 0L;
+                    for (var col = 0; col < size; col++) {
+                        sum = Math.addExact(sum, Math.multiplyExact(power[row][col], current[col]));
+                    }
+                    next[row] = sum;
+                }
+                current = next;
+            }
+            if (remaining > 1) {
+                var squared = new long[size][size];
+                for (var row = 0; row < size; row++) {
+                    for (var mid = 0; mid < size; mid++) {
+                        if (power[row][mid] == 0) {
+                            continue;
+                        }
+                        for (var col = 0; col < size; col++) {
+                            squared[row][col] = Math.addExact(
+                                    squared[row][col],
+                                    Math.multiplyExact(power[row][mid], power[mid][col]));
+                        }
+                    }
+                }
+                power = squared;
+            }
+        }
+        return current;
+    }
+
+    private BigInteger[] jump(BigInteger[] counts, long steps) {
+        var size = states.size();
+        var power = new BigInteger[size][];
+        for (var row = 0; row < size; row++) {
+            power[row] = zeros(size);
+        }
+        for (var source = 0; source < size; source++) {
+            for (var idx = offsets[source]; idx < offsets[source + 1]; idx++) {
+                power[targets[idx]][source] = power[targets[idx]][source].add(BigInteger.valueOf(multiplicities[idx]));
+            }
+        }
+
+        var current = counts.clone();
+        for (var remaining = steps; remaining > 0; remaining >>>= 1) {
+            if ((remaining & 1) == 1) {
+                var next = zeros(size);
+                for (var row = 0; row < size; row++) {
+                    for (var col = 0; col < size; col++) {
+                        next[row] = next[row].add(power[row][col].multiply(current[col]));
+                    }
+                }
+                current = next;
+            }
+            if (remaining > 1) {
+                var squared = new BigInteger[size][];
+                for (var row = 0; row < size; row++) {
+                    squared[row] = zeros(size);
+                    for (var mid = 0; mid < size; mid++) {
+                        if (power[row][mid].signum() == 0) {
+                            continue;
+                        }
+                        for (var col = 0; col < size; col++) {
+                            squared[row][col] = squared[row][col].add(power[row][mid].multiply(power[mid][col]));
+                        }
+                    }
+                }
+                power = squared;
+            }
+        }
+        return current;
+    }
+
+    private static BigInteger[] zeros(int size) {
+        var zeros = new BigInteger[size];
+        Arrays.fill(zeros, BigInteger.ZERO);
+        return zeros;
+    }
+
+    /**
+     * The number of items in every state. Counts are kept in longs until they no longer fit.
+     */
+    public class Population {
+        private long[] counts;
+        private BigInteger[] large;
+
+        private Population(long[] counts, BigInteger[] large) {
+            this.counts = counts;
+            this.large = large;
+        }
+
+        /**
+         * Add items in the given state, which must be one of the seeds or reachable from them.
+         */
+        public Population add(S state, long amount) {
+            var id = ids.get(state);
+            if (id == null) {
+                throw new IllegalArgumentException("State %s is not reachable from the seeds.".formatted(state));
+            }
+            if (large == null) {
+                try {
+                    counts[id] = Math.addExact(counts[id], amount);
+                    return this;
+                } catch (ArithmeticException overflow) {
+                    // continue counting with arbitrary precision
+                    large = asLarge();
+                    counts = null;
+                }
+            }
+            large[id] = large[id].add(BigInteger.valueOf(amount));
+            return this;
+        }
+
+        public BigInteger count(S state) {
+            var id = ids.get(state);
+            if (id == null) {
+                return BigInteger.ZERO;
+            }
+            return large != null ? large[id] : BigInteger.valueOf(counts[id]);
+        }
+
+        public BigInteger total() {
+            var total = BigInteger.ZERO;
+            for (var count : asLarge()) {
+                total = total.add(count);
+            }
+            return total;
+        }
+
+        /**
+         * Visit every state holding at least one item.
+         */
+        public void forEach(BiConsumer<S, BigInteger> consumer) {
+            var values = asLarge();
+            for (var id = 0; id < values.length; id++) {
+                if (values[id].signum() != 0) {
+                    consumer.accept(states.get(id), values[id]);
+                }
+            }
+        }
+
+        private BigInteger[] asLarge() {
+            if (large != null) {
+                return large;
+            }
+            var converted = new BigInteger[counts.length];
+            for (var id = 0; id < counts.length; id++) {
+                converted[id] = BigInteger.valueOf(counts[id]);
+            }
+            return converted;
+        }
+    }
+}
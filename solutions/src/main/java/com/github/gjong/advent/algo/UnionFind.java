@@ -0,0 +1,73 @@
+package com.github.gjong.advent.algo;
+
+/**
+ * Disjoint sets over the int elements {@code 0 .. size - 1}, using union by size and path halving so every operation
+ * runs in near constant time.
+ */
+public class UnionFind {
+    private final int[] parents;
+    private final int[] sizes;
+    private int sets;
+
+    public UnionFind(int size) {
+        parents = new int[size];
+        sizes = new int[size];
+        for (var idx = 0; idx < size; idx++) {
+            parents[idx] = idx;
+            sizes[idx] = 1;
+        }
+        sets = size;
+    }
+
+    /**
+     * The representative of the set holding the element.
+     */
+    public int find(int element) {
+        while (parents[element] != element) {
+            parents[element] = parents[parents[element]];
+            element = parents[element];
+        }
+        return element;
+    }
+
+    /**
+     * Merge the sets of both elements.
+     *
+     * @return false when both elements already were in the same set
+     */
+    public boolean union(int a, int b) {
+        var rootA = find(a);
+        var rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+
+        if (sizes[rootA] < sizes[rootB]) {
+            var swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parents[rootB] = rootA;
+        sizes[rootA] += sizes[rootB];
+        sets--;
+        return true;
+    }
+
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * The number of elements in the set holding the element.
+     */
+    public int sizeOf(int element) {
+        return sizes[find(element)];
+    }
+
+    /**
+     * The number of disjoint sets.
+     */
+    public int sets() {
+        return sets;
+    }
+}
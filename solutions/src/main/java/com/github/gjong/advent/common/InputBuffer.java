@@ -0,0 +1,242 @@
+package com.github.gjong.advent.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * The raw bytes of an input file, read only once. Inputs that live on the file system are memory-mapped, inputs
+ * packaged in a jar are read into a single heap buffer.
+ * <p>
+ * All views returned by this buffer share the underlying bytes, no copy of the input is made. The character views
+ * assume the input is ASCII, which holds for all puzzle inputs.
+ * <p>
+ * The number scanners parse straight from the bytes. A {@code -} is only treated as a sign when it is not preceded by
+ * a digit, so {@code x=-3} yields {@code -3} while a range {@code 3-5} yields {@code 3} and {@code 5}.
+ */
+public class InputBuffer {
+
+    private final ByteBuffer buffer;
+
+    private InputBuffer(ByteBuffer buffer) {
+        this.buffer = buffer.asReadOnlyBuffer();
+    }
+
+    /**
+     * The number of bytes in the input.
+     */
+    public int size() {
+        return buffer.limit();
+    }
+
+    /**
+     * Read a single byte at the given offset.
+     */
+    public byte byteAt(int offset) {
+        return buffer.get(offset);
+    }
+
+    /**
+     * A read-only view on all bytes of the input, positioned at the start.
+     */
+    public ByteBuffer bytes() {
+        return buffer.duplicate();
+    }
+
+    /**
+     * A character view on the complete input.
+     */
+    public CharSequence chars() {
+        return new ByteCharSequence(buffer, 0, size());
+    }
+
+    /**
+     * A stream of character views, one for every line in the input without the line terminator.
+     */
+    public Stream<CharSequence> lines() {
+        var builder = Stream.<CharSequence>builder();
+        forEachLine(builder);
+        return builder.build();
+    }
+
+    /**
+     * Call the consumer with a character view for every line in the input without the line terminator.
+     */
+    public void forEachLine(Consumer<CharSequence> lineConsumer) {
+        forEachLineRange((start, end) -> lineConsumer.accept(new ByteCharSequence(buffer, start, end - start)));
+    }
+
+    /**
+     * All numbers in the input, in the order they appear.
+     */
+    public long[] longs() {
+        return longs(0, size());
+    }
+
+    /**
+     * All numbers in the input, in the order they appear.
+     *
+     * @throws ArithmeticException if one of the numbers does not fit an int
+     */
+    public int[] ints() {
+        return toInts(longs());
+    }
+
+    /**
+     * A stream with the numbers found on every line, a line without numbers results in an empty array.
+     */
+    public Stream<long[]> longsPerLine() {
+        var builder = Stream.<long[]>builder();
+        forEachLineRange((start, end) -> builder.add(longs(start, end)));
+        return builder.build();
+    }
+
+    /**
+     * A stream with the numbers found on every line, a line without numbers results in an empty array.
+     *
+     * @throws ArithmeticException if one of the numbers does not fit an int
+     */
+    public Stream<int[]> intsPerLine() {
+        var builder = Stream.<int[]>builder();
+        forEachLineRange((start, end) -> builder.add(toInts(longs(start, end))));
+        return builder.build();
+    }
+
+    /**
+     * Convert every line into a row of single digit values, so {@code '7'} becomes {@code 7}.
+     */
+    public byte[][] digitGrid() {
+        var builder = Stream.<byte[]>builder();
+        forEachLineRange((start, end) -> {
+            var row = new byte[end - start];
+            for (var idx = start; idx < end; idx++) {
+                row[idx - start] = (byte) (buffer.get(idx) - '0');
+            }
+            builder.add(row);
+        });
+        return builder.build().toArray(byte[][]::new);
+    }
+
+    /**
+     * Decode the complete input into a string.
+     */
+    public String string() {
+        return StandardCharsets.UTF_8.decode(bytes()).toString();
+    }
+
+    private void forEachLineRange(LineRangeConsumer lineConsumer) {
+        var start = 0;
+        var end = size();
+        for (var idx = 0; idx < end; idx++) {
+            var current = buffer.get(idx);
+            if (current == '\n' || current == '\r') {
+                lineConsumer.accept(start, idx);
+                if (current == '\r' && idx + 1 < end && buffer.get(idx + 1) == '\n') {
+                    idx++;
+                }
+                start = idx + 1;
+            }
+        }
+
+        if (start < end) {
+            lineConsumer.accept(start, end);
+        }
+    }
+
+    private long[] longs(int from, int to) {
+        var numbers = new long[16];
+        var count = 0;
+
+        var idx = from;
+        while (idx < to) {
+            if (!isDigit(buffer.get(idx))) {
+                idx++;
+                continue;
+            }
+
+            var negative = idx > from
+                    && buffer.get(idx - 1) == '-'
+                    && (idx - 1 == from || !isDigit(buffer.get(idx - 2)));
+            var value = 0L;
+            while (idx < to && isDigit(buffer.get(idx))) {
+                value = value * 10 + (buffer.get(idx) - '0');
+                idx++;
+            }
+
+            if (count == numbers.length) {
+                numbers = Arrays.copyOf(numbers, count * 2);
+            }
+            numbers[count++] = negative ? -value : value;
+        }
+
+        return Arrays.copyOf(numbers, count);
+    }
+
+    private static int[] toInts(long[] numbers) {
+        var ints = new int[numbers.length];
+        for (var idx = 0; idx < numbers.length; idx++) {
+            ints[idx] = Math.toIntExact(numbers[idx]);
+        }
+        return ints;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    @FunctionalInterface
+    private interface LineRangeConsumer {
+        void accept(int start, int end);
+    }
+
+    static InputBuffer of(URL resource) {
+        try {
+            if ("file".equals(resource.getProtocol())) {
+                try (var channel = FileChannel.open(Path.of(resource.toURI()), StandardOpenOption.READ)) {
+                    return new InputBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+                }
+            }
+
+            try (InputStream inputStream = resource.openStream()) {
+                return new InputBuffer(ByteBuffer.wrap(inputStream.readAllBytes()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new RuntimeException("Could not read input data.", e);
+        }
+    }
+
+    private record ByteCharSequence(ByteBuffer buffer, int offset, int length) implements CharSequence {
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Invalid range %d - %d".formatted(start, end));
+            }
+            return new ByteCharSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            var bytes = new byte[length];
+            buffer.get(offset, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.gjong.advent.common;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Process wide cache for the raw input of a day and any structures parsed from it, shared across benchmark runs and
+ * between both parts of a solution.
+ * <p>
+ * Entries are evicted in least recently used order once the raw inputs, and the strings decoded from them, exceed the
+ * byte budget. Parsed structures are handed out to multiple callers, so they must not be mutated by a solution.
+ * <p>
+ * The cache can be disabled, in which case every loader reads its input once and every call parses it again. This
+ * keeps the timing of {@link com.github.gjong.advent.DaySolver#readInput()} honest when that is what needs to be
+ * measured.
+ */
+public class InputCache {
+    private static final InputCache INSTANCE = new InputCache(256L * 1024 * 1024);
+
+    /**
+     * Identifies the input of a single day.
+     */
+    public record Key(int year, int day, boolean large) {}
+
+    private static class Entry {
+        private final InputBuffer buffer;
+        private final Map<String, Object> parsed = new ConcurrentHashMap<>();
+        private volatile String decoded;
+
+        private Entry(InputBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private long weight() {
+            // puzzle inputs are ASCII, which a compact string stores in one byte per character
+            var value = decoded;
+            return buffer.size() + (value == null ? 0 : value.length());
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    private volatile boolean enabled = true;
+
+    InputCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public void disable() {
+        enabled = false;
+        clear();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Remove both the regular and the large input of the given day from the cache.
+     */
+    public synchronized void evict(int year, int day) {
+        remove(new Key(year, day, false));
+        remove(new Key(year, day, true));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        cachedBytes = 0;
+    }
+
+    InputBuffer buffer(Key key, Supplier<InputBuffer> reader) {
+        if (!enabled) {
+            return reader.get();
+        }
+        return entry(key, reader).buffer;
+    }
+
+    String string(Key key, Supplier<InputBuffer> reader) {
+        if (!enabled) {
+            return reader.get().string();
+        }
+        var entry = entry(key, reader);
+        var decoded = entry.decoded;
+        if (decoded == null) {
+            decoded = attach(key, entry, entry.buffer.string());
+        }
+        return decoded;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T parsed(Key key, String name, Supplier<InputBuffer> reader, Supplier<T> parser) {
+        if (!enabled) {
+            return parser.get();
+        }
+        var parsed = entry(key, reader).parsed;
+        var value = parsed.get(name);
+        if (value == null) {
+            // not using computeIfAbsent, a parser is allowed to use other cached structures of the same input
+            var computed = parser.get();
+            value = parsed.putIfAbsent(name, computed);
+            if (value == null) {
+                value = computed;
+            }
+        }
+        return (T) value;
+    }
+
+    private synchronized Entry entry(Key key, Supplier<InputBuffer> reader) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry(reader.get());
+            entries.put(key, entry);
+            cachedBytes += entry.weight();
+            evictOverBudget(key);
+        }
+        return entry;
+    }
+
+    /**
+     * Keep the decoded string with its entry, counting it against the budget as long as the entry is cached.
+     */
+    private synchronized String attach(Key key, Entry entry, String decoded) {
+        if (entry.decoded != null) {
+            return entry.decoded;
+        }
+        var cached = entries.get(key) == entry;
+        entry.decoded = decoded;
+        if (cached) {
+            cachedBytes += decoded.length();
+            evictOverBudget(key);
+        }
+        return decoded;
+    }
+
+    private void evictOverBudget(Key keep) {
+        var iterator = entries.entrySet().iterator();
+        while (cachedBytes > maxBytes && iterator.hasNext()) {
+            var eldest = iterator.next();
+            if (!eldest.getKey().equals(keep)) {
+                cachedBytes -= eldest.getValue().weight();
+                iterator.remove();
+            }
+        }
+    }
+
+    private void remove(Key key) {
+        var removed = entries.remove(key);
+        if (removed != null) {
+            cachedBytes -= removed.weight();
+        }
+    }
+
+    public static InputCache instance() {
+        return INSTANCE;
+    }
+}
@@ -2,10 +2,9 @@ package com.github.gjong.advent.common;
 
 import com.github.gjong.advent.grid.CharGrid;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Scanner;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -14,19 +13,30 @@ public class InputLoader {
     private boolean useLargeFile = false;
     private final String resourceFile;
     private final String largeResourceFile;
+    private final int year;
+    private final int day;
+    private volatile InputBuffer uncached;
 
     public InputLoader(int year, int day) {
+        this.year = year;
+        this.day = day;
         resourceFile = "/input/%d/day_%02d.txt".formatted(year, day);
         largeResourceFile = "/input/%d/day_%02d_large.txt".formatted(year, day);
     }
 
+    /**
+     * Create a loader for an arbitrary resource, these are never stored in the {@link InputCache}.
+     */
     public InputLoader(String resourceFile) {
+        this.year = -1;
+        this.day = -1;
         this.resourceFile = resourceFile;
         this.largeResourceFile = resourceFile;
     }
 
     public void useLargeFile() {
         useLargeFile = true;
+        uncached = null;
     }
 
     public Stream<String> splitOnNewLine() {
@@ -39,16 +49,94 @@ public class InputLoader {
                 .mapToInt(Integer::parseInt);
     }
 
+    /**
+     * All numbers in the input, see {@link InputBuffer#longs()}.
+     */
+    public long[] longs() {
+        return buffer().longs();
+    }
+
+    /**
+     * All numbers in the input, see {@link InputBuffer#ints()}.
+     */
+    public int[] ints() {
+        return buffer().ints();
+    }
+
+    /**
+     * The numbers on each line of the input, see {@link InputBuffer#longsPerLine()}.
+     */
+    public Stream<long[]> longsPerLine() {
+        return buffer().longsPerLine();
+    }
+
+    /**
+     * The numbers on each line of the input, see {@link InputBuffer#intsPerLine()}.
+     */
+    public Stream<int[]> intsPerLine() {
+        return buffer().intsPerLine();
+    }
+
+    /**
+     * The input as a grid of single digits, see {@link InputBuffer#digitGrid()}.
+     */
+    public byte[][] digitGrid() {
+        return buffer().digitGrid();
+    }
+
     public char[] chars() {
         return string().toCharArray();
     }
 
+    /**
+     * The input as a string. Cached inputs are decoded once and the string is kept with the buffer, otherwise every
+     * call decodes the input again.
+     */
     public String string() {
-        try (var inputData = readInputData()) {
-            return new String(inputData.readAllBytes());
-        } catch (IOException e) {
-            throw new RuntimeException("Could not read input data.", e);
+        if (!cached()) {
+            return buffer().string();
+        }
+        return InputCache.instance().string(cacheKey(), this::readInputData);
+    }
+
+    /**
+     * Provides access to the raw bytes of the input. The input is only read once, every later call shares the same
+     * buffer. Inputs outside the {@link InputCache}, or read while it is disabled, are kept by this loader.
+     */
+    public InputBuffer buffer() {
+        if (!cached()) {
+            var buffer = uncached;
+            if (buffer == null) {
+                // reading twice from concurrent callers is harmless, both buffers hold the same bytes
+                buffer = readInputData();
+                uncached = buffer;
+            }
+            return buffer;
+        }
+        return InputCache.instance().buffer(cacheKey(), this::readInputData);
+    }
+
+    /**
+     * Parse the input once and share the result with every later call using the same name, including calls made
+     * in other benchmark runs. The parsed structure must not be modified by the caller.
+     *
+     * @param name   the name identifying the parsed structure for this input
+     * @param parser the function to parse the input with if it is not cached yet
+     * @return the parsed structure
+     */
+    public <T> T parsed(String name, Function<InputLoader, T> parser) {
+        if (!cached()) {
+            return parser.apply(this);
         }
+        return InputCache.instance().parsed(cacheKey(), name, this::readInputData, () -> parser.apply(this));
+    }
+
+    /**
+     * A stream of zero-copy line views over the input, use this over {@link #splitOnNewLine()} if the lines do not
+     * need to be kept as a string.
+     */
+    public Stream<CharSequence> lines() {
+        return buffer().lines();
     }
 
     public String[] split(CharSequence splitter) {
@@ -70,11 +158,19 @@ public class InputLoader {
         return new CharGrid(string());
     }
 
-    private InputStream readInputData() {
+    private boolean cached() {
+        return day >= 0 && InputCache.instance().isEnabled();
+    }
+
+    private InputCache.Key cacheKey() {
+        return new InputCache.Key(year, day, useLargeFile);
+    }
+
+    private InputBuffer readInputData() {
         var inputFileName = useLargeFile ? largeResourceFile : resourceFile;
-        var resourceStream = getClass().getResourceAsStream(inputFileName);
-        assert resourceStream != null : "Could not read input data.";
+        var resource = getClass().getResource(inputFileName);
+        assert resource != null : "Could not read input data.";
 
-        return resourceStream;
+        return InputBuffer.of(resource);
     }
 }
@@ -0,0 +1,9 @@
+package com.github.gjong.advent.geo;
+
+/**
+ * Computes a value from the coordinates of a point, without boxing them or allocating a {@link Point}.
+ */
+@FunctionalInterface
+public interface PointFunction<V> {
+    V apply(int x, int y);
+}
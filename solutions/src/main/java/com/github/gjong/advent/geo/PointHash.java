@@ -0,0 +1,206 @@
+package com.github.gjong.advent.geo;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Base for the open-addressing hash structures keyed on a point. The x and y coordinate are packed into a single
+ * long, so no {@link Point} has to be allocated for a lookup. Collisions are resolved using linear probing, removal
+ * uses backward shifting so no tombstones are needed.
+ * <p>
+ * Implementations keep their values in arrays indexed by the same slot as the key, the hooks
+ * {@link #rehashValues(int[], int)}, {@link #moveValue(int, int)} and {@link #clearValue(int)} keep them in sync.
+ */
+public abstract class PointHash {
+
+    /**
+     * Receives the coordinates of every point stored in a structure.
+     */
+    @FunctionalInterface
+    public interface PointVisitor {
+        void accept(int x, int y);
+    }
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    protected long[] keys;
+    protected boolean[] used;
+    private int size;
+    private int shift;
+    private int threshold;
+
+    PointHash(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    PointHash(PointHash other) {
+        keys = other.keys.clone();
+        used = other.used.clone();
+        size = other.size;
+        shift = other.shift;
+        threshold = other.threshold;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int x, int y) {
+        return indexOf(pack(x, y)) >= 0;
+    }
+
+    public boolean containsKey(Point point) {
+        return containsKey(point.x(), point.y());
+    }
+
+    public void clear() {
+        for (var idx = 0; idx < used.length; idx++) {
+            if (used[idx]) {
+                clearValue(idx);
+            }
+        }
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    /**
+     * Visit every point in the structure, in no particular order.
+     */
+    public void forEachPoint(PointVisitor visitor) {
+        for (var idx = 0; idx < keys.length; idx++) {
+            if (used[idx]) {
+                visitor.accept(unpackX(keys[idx]), unpackY(keys[idx]));
+            }
+        }
+    }
+
+    /**
+     * All points in the structure, in no particular order.
+     */
+    public Stream<Point> points() {
+        return IntStream.range(0, keys.length)
+                .filter(idx -> used[idx])
+                .mapToObj(idx -> new Point(unpackX(keys[idx]), unpackY(keys[idx])));
+    }
+
+    protected int indexOf(long key) {
+        var idx = slot(key);
+        while (used[idx]) {
+            if (keys[idx] == key) {
+                return idx;
+            }
+            idx = (idx + 1) & (keys.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Locate the slot of the key, claiming a new slot if the key is not yet present.
+     *
+     * @return the slot of an existing key, or {@code -slot - 1} when the key was just inserted
+     */
+    protected int claim(long key) {
+        if (size >= threshold) {
+            grow();
+        }
+
+        var idx = slot(key);
+        while (used[idx]) {
+            if (keys[idx] == key) {
+                return idx;
+            }
+            idx = (idx + 1) & (keys.length - 1);
+        }
+
+        used[idx] = true;
+        keys[idx] = key;
+        size++;
+        return -idx - 1;
+    }
+
+    /**
+     * Remove the entry at the given slot, shifting any following entries of the probe sequence backward.
+     */
+    protected void removeAt(int idx) {
+        var mask = keys.length - 1;
+        var free = idx;
+        var next = (free + 1) & mask;
+        while (used[next]) {
+            var home = slot(keys[next]);
+            // move the entry if its home slot is not cyclically within (free, next]
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                keys[free] = keys[next];
+                moveValue(next, free);
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        used[free] = false;
+        clearValue(free);
+        size--;
+    }
+
+    protected abstract void rehashValues(int[] targets, int capacity);
+
+    protected abstract void moveValue(int from, int to);
+
+    protected abstract void clearValue(int idx);
+
+    private void grow() {
+        var oldKeys = keys;
+        var oldUsed = used;
+        allocate(oldKeys.length * 2);
+
+        var targets = new int[oldKeys.length];
+        for (var idx = 0; idx < oldKeys.length; idx++) {
+            if (!oldUsed[idx]) {
+                targets[idx] = -1;
+                continue;
+            }
+
+            var target = slot(oldKeys[idx]);
+            while (used[target]) {
+                target = (target + 1) & (keys.length - 1);
+            }
+            used[target] = true;
+            keys[target] = oldKeys[idx];
+            targets[idx] = target;
+        }
+        rehashValues(targets, keys.length);
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slot(long key) {
+        // fibonacci hashing spreads the packed coordinates over the table
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        var needed = (int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    static int unpackY(long key) {
+        return (int) key;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.gjong.advent.geo;
+
+/**
+ * A map from a point to an int backed by primitive arrays, see {@link PointHash}.
+ * Lookups of a point that is not in the map return the configured missing value.
+ */
+public class PointIntMap extends PointHash {
+
+    /**
+     * Receives every entry stored in the map.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor {
+        void accept(int x, int y, int value);
+    }
+
+    private final int missingValue;
+    private int[] values;
+
+    public PointIntMap() {
+        this(16, 0);
+    }
+
+    public PointIntMap(int expectedSize, int missingValue) {
+        super(expectedSize);
+        this.missingValue = missingValue;
+        this.values = new int[keys.length];
+    }
+
+    public int get(int x, int y) {
+        var idx = indexOf(pack(x, y));
+        return idx < 0 ? missingValue : values[idx];
+    }
+
+    public int get(Point point) {
+        return get(point.x(), point.y());
+    }
+
+    /**
+     * Store the value for the point.
+     *
+     * @return the previous value, or the missing value if the point was not present
+     */
+    public int put(int x, int y, int value) {
+        var idx = claim(pack(x, y));
+        if (idx < 0) {
+            values[-idx - 1] = value;
+            return missingValue;
+        }
+
+        var previous = values[idx];
+        values[idx] = value;
+        return previous;
+    }
+
+    public int put(Point point, int value) {
+        return put(point.x(), point.y(), value);
+    }
+
+    /**
+     * Add the delta to the value of the point, a point not yet present starts at the missing value.
+     *
+     * @return the updated value
+     */
+    public int add(int x, int y, int delta) {
+        var idx = claim(pack(x, y));
+        if (idx < 0) {
+            idx = -idx - 1;
+            values[idx] = missingValue;
+        }
+        return values[idx] += delta;
+    }
+
+    /**
+     * Remove the point from the map.
+     *
+     * @return the removed value, or the missing value if the point was not present
+     */
+    public int remove(int x, int y) {
+        var idx = indexOf(pack(x, y));
+        if (idx < 0) {
+            return missingValue;
+        }
+
+        var previous = values[idx];
+        removeAt(idx);
+        return previous;
+    }
+
+    public void forEach(EntryVisitor visitor) {
+        for (var idx = 0; idx < keys.length; idx++) {
+            if (used[idx]) {
+                visitor.accept(unpackX(keys[idx]), unpackY(keys[idx]), values[idx]);
+            }
+        }
+    }
+
+    @Override
+    protected void rehashValues(int[] targets, int capacity) {
+        var rehashed = new int[capacity];
+        for (var idx = 0; idx < targets.length; idx++) {
+            if (targets[idx] >= 0) {
+                rehashed[targets[idx]] = values[idx];
+            }
+        }
+        values = rehashed;
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    protected void clearValue(int idx) {
+        values[idx] = 0;
+    }
+}
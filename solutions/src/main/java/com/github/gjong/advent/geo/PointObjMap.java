@@ -0,0 +1,121 @@
+package com.github.gjong.advent.geo;
+
+/**
+ * A map from a point to an object, with the keys backed by primitive arrays, see {@link PointHash}.
+ * Lookups of a point that is not in the map return {@code null}.
+ */
+public class PointObjMap<V> extends PointHash {
+
+    /**
+     * Receives every entry stored in the map.
+     */
+    @FunctionalInterface
+    public interface EntryVisitor<V> {
+        void accept(int x, int y, V value);
+    }
+
+    private Object[] values;
+
+    public PointObjMap() {
+        this(16);
+    }
+
+    public PointObjMap(int expectedSize) {
+        super(expectedSize);
+        this.values = new Object[keys.length];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int x, int y) {
+        var idx = indexOf(pack(x, y));
+        return idx < 0 ? null : (V) values[idx];
+    }
+
+    public V get(Point point) {
+        return get(point.x(), point.y());
+    }
+
+    /**
+     * Store the value for the point.
+     *
+     * @return the previous value, or null if the point was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int x, int y, V value) {
+        var idx = claim(pack(x, y));
+        if (idx < 0) {
+            values[-idx - 1] = value;
+            return null;
+        }
+
+        var previous = (V) values[idx];
+        values[idx] = value;
+        return previous;
+    }
+
+    public V put(Point point, V value) {
+        return put(point.x(), point.y(), value);
+    }
+
+    /**
+     * Return the value of the point, computing and storing it first if the point is not yet present.
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(int x, int y, PointFunction<? extends V> generator) {
+        var idx = indexOf(pack(x, y));
+        if (idx >= 0) {
+            return (V) values[idx];
+        }
+
+        var value = generator.apply(x, y);
+        put(x, y, value);
+        return value;
+    }
+
+    /**
+     * Remove the point from the map.
+     *
+     * @return the removed value, or null if the point was not present
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int x, int y) {
+        var idx = indexOf(pack(x, y));
+        if (idx < 0) {
+            return null;
+        }
+
+        var previous = (V) values[idx];
+        removeAt(idx);
+        return previous;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryVisitor<V> visitor) {
+        for (var idx = 0; idx < keys.length; idx++) {
+            if (used[idx]) {
+                visitor.accept(unpackX(keys[idx]), unpackY(keys[idx]), (V) values[idx]);
+            }
+        }
+    }
+
+    @Override
+    protected void rehashValues(int[] targets, int capacity) {
+        var rehashed = new Object[capacity];
+        for (var idx = 0; idx < targets.length; idx++) {
+            if (targets[idx] >= 0) {
+                rehashed[targets[idx]] = values[idx];
+            }
+        }
+        values = rehashed;
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+        values[to] = values[from];
+    }
+
+    @Override
+    protected void clearValue(int idx) {
+        values[idx] = null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.gjong.advent.geo;
+
+/**
+ * A set of points backed by primitive arrays, see {@link PointHash}.
+ */
+public class PointSet extends PointHash {
+
+    public PointSet() {
+        this(16);
+    }
+
+    public PointSet(int expectedSize) {
+        super(expectedSize);
+    }
+
+    /**
+     * Create a copy of the other set.
+     */
+    public PointSet(PointSet other) {
+        super(other);
+    }
+
+    /**
+     * Add the point to the set.
+     *
+     * @return true if the point was not yet part of the set
+     */
+    public boolean add(int x, int y) {
+        return claim(pack(x, y)) < 0;
+    }
+
+    public boolean add(Point point) {
+        return add(point.x(), point.y());
+    }
+
+    public boolean contains(int x, int y) {
+        return containsKey(x, y);
+    }
+
+    public boolean contains(Point point) {
+        return containsKey(point.x(), point.y());
+    }
+
+    /**
+     * Remove the point from the set.
+     *
+     * @return true if the point was part of the set
+     */
+    public boolean remove(int x, int y) {
+        var idx = indexOf(pack(x, y));
+        if (idx < 0) {
+            return false;
+        }
+        removeAt(idx);
+        return true;
+    }
+
+    public boolean remove(Point point) {
+        return remove(point.x(), point.y());
+    }
+
+    @Override
+    protected void rehashValues(int[] targets, int capacity) {
+    }
+
+    @Override
+    protected void moveValue(int from, int to) {
+    }
+
+    @Override
+    protected void clearValue(int idx) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.github.gjong.advent.grid;
+
+import com.github.gjong.advent.geo.Bounds;
+import com.github.gjong.advent.geo.Point;
+
+import java.util.Objects;
+
+/**
+ * A grid of booleans where every row is stored as a bitset of longs. Row operations like {@link #orRow} and
+ * {@link #countRow} work on a full word at a time.
+ * <p>
+ * Reading outside the grid always returns false, writing outside the grid throws an
+ * {@link IndexOutOfBoundsException} so no padding bit of a row can ever be set.
+ */
+public class BitGrid implements Grid<Boolean> {
+
+    private final int rows;
+    private final int cols;
+    private final int wordsPerRow;
+    private final long[] words;
+
+    public BitGrid(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.wordsPerRow = (cols + 63) >>> 6;
+        this.words = new long[rows * wordsPerRow];
+    }
+
+    private BitGrid(BitGrid other) {
+        this.rows = other.rows;
+        this.cols = other.cols;
+        this.wordsPerRow = other.wordsPerRow;
+        this.words = other.words.clone();
+    }
+
+    /**
+     * Create a bit grid with a bit set for every position in the char grid that matches the character.
+     */
+    public static BitGrid of(CharGrid grid, char active) {
+        var bitGrid = new BitGrid(grid.rows(), grid.cols());
+        for (var y = 0; y < grid.rows(); y++) {
+            var row = grid.row(y);
+            for (var x = 0; x < row.length; x++) {
+                if (row[x] == active) {
+                    bitGrid.set(x, y);
+                }
+            }
+        }
+        return bitGrid;
+    }
+
+    public boolean get(int x, int y) {
+        if (x < 0 || x >= cols || y < 0 || y >= rows) {
+            return false;
+        }
+        return (words[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    public boolean get(Point p) {
+        return get(p.x(), p.y());
+    }
+
+    public void set(int x, int y) {
+        words[index(x, y)] |= 1L << x;
+    }
+
+    public void set(Point p) {
+        set(p.x(), p.y());
+    }
+
+    public void clear(int x, int y) {
+        words[index(x, y)] &= ~(1L << x);
+    }
+
+    public void set(int x, int y, boolean value) {
+        if (value) {
+            set(x, y);
+        } else {
+            clear(x, y);
+        }
+    }
+
+    private int index(int x, int y) {
+        Objects.checkIndex(x, cols);
+        Objects.checkIndex(y, rows);
+        return y * wordsPerRow + (x >>> 6);
+    }
+
+    /**
+     * Combine the source row of the other grid into the target row of this grid using a bitwise OR.
+     * Both grids must have the same number of columns.
+     */
+    public void orRow(int targetRow, BitGrid other, int sourceRow) {
+        requireSameWidth(other);
+        var target = targetRow * wordsPerRow;
+        var source = sourceRow * wordsPerRow;
+        for (var word = 0; word < wordsPerRow; word++) {
+            words[target + word] |= other.words[source + word];
+        }
+    }
+
+    /**
+     * Combine the source row of the other grid into the target row of this grid using a bitwise AND.
+     * Both grids must have the same number of columns.
+     */
+    public void andRow(int targetRow, BitGrid other, int sourceRow) {
+        requireSameWidth(other);
+        var target = targetRow * wordsPerRow;
+        var source = sourceRow * wordsPerRow;
+        for (var word = 0; word < wordsPerRow; word++) {
+            words[target + word] &= other.words[source + word];
+        }
+    }
+
+    /**
+     * Combine all bits of the other grid into this grid using a bitwise OR, both grids must have the same size.
+     */
+    public void or(BitGrid other) {
+        requireSameSize(other);
+        for (var word = 0; word < words.length; word++) {
+            words[word] |= other.words[word];
+        }
+    }
+
+    /**
+     * Combine all bits of the other grid into this grid using a bitwise AND, both grids must have the same size.
+     */
+    public void and(BitGrid other) {
+        requireSameSize(other);
+        for (var word = 0; word < words.length; word++) {
+            words[word] &= other.words[word];
+        }
+    }
+
+    /**
+     * Clear every bit in this grid that is set in the other grid, both grids must have the same size.
+     */
+    public void andNot(BitGrid other) {
+        requireSameSize(other);
+        for (var word = 0; word < words.length; word++) {
+            words[word] &= ~other.words[word];
+        }
+    }
+
+    public int countRow(int y) {
+        var count = 0;
+        for (var word = y * wordsPerRow; word < (y + 1) * wordsPerRow; word++) {
+            count += Long.bitCount(words[word]);
+        }
+        return count;
+    }
+
+    public int count() {
+        var count = 0;
+        for (var word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public BitGrid copy() {
+        return new BitGrid(this);
+    }
+
+    /**
+     * Render the grid using the given characters for set and cleared bits.
+     */
+    public String print(char active, char inactive) {
+        var sb = new StringBuilder();
+        for (var y = 0; y < rows; y++) {
+            for (var x = 0; x < cols; x++) {
+                sb.append(get(x, y) ? active : inactive);
+            }
+            sb.append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public Boolean at(int x, int y) {
+        return get(x, y);
+    }
+
+    /**
+     * Renders a set bit as {@code '#'} and a cleared bit as {@code '.'}.
+     */
+    @Override
+    public char charAt(int x, int y) {
+        return get(x, y) ? '#' : '.';
+    }
+
+    @Override
+    public int intAt(int x, int y) {
+        return get(x, y) ? 1 : 0;
+    }
+
+    @Override
+    public int rows() {
+        return rows;
+    }
+
+    @Override
+    public int cols() {
+        return cols;
+    }
+
+    @Override
+    public Bounds bounds() {
+        return new Bounds(0, 0, cols - 1, rows - 1);
+    }
+
+    private void requireSameWidth(BitGrid other) {
+        if (other.cols != cols) {
+            throw new IllegalArgumentException("Grids differ in width, %d and %d.".formatted(cols, other.cols));
+        }
+    }
+
+    private void requireSameSize(BitGrid other) {
+        requireSameWidth(other);
+        if (other.rows != rows) {
+            throw new IllegalArgumentException("Grids differ in height, %d and %d.".formatted(rows, other.rows));
+        }
+    }
+}
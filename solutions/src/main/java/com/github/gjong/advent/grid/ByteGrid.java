@@ -0,0 +1,102 @@
+package com.github.gjong.advent.grid;
+
+import com.github.gjong.advent.geo.Bounds;
+import com.github.gjong.advent.geo.Point;
+
+/**
+ * A grid of small numbers, like the digit maps used in many puzzles, stored as a single byte per position.
+ * <p>
+ * Reading outside the grid returns the configured out of bounds value.
+ */
+public class ByteGrid implements Grid<Byte> {
+
+    private final byte[][] grid;
+    private final byte outOfBounds;
+
+    public ByteGrid(int rows, int cols) {
+        this(new byte[rows][cols], (byte) -1);
+    }
+
+    public ByteGrid(byte[][] grid, byte outOfBounds) {
+        this.grid = grid;
+        this.outOfBounds = outOfBounds;
+    }
+
+    /**
+     * Create a grid from rows of single digit values, as provided by
+     * {@link com.github.gjong.advent.common.InputLoader#digitGrid()}.
+     */
+    public static ByteGrid of(byte[][] digits) {
+        return new ByteGrid(digits, (byte) -1);
+    }
+
+    /**
+     * Convert a char grid of digits, so {@code '7'} becomes {@code 7}.
+     */
+    public static ByteGrid digits(CharGrid grid) {
+        var digits = new byte[grid.rows()][grid.cols()];
+        for (var y = 0; y < grid.rows(); y++) {
+            var row = grid.row(y);
+            for (var x = 0; x < row.length; x++) {
+                digits[y][x] = (byte) (row[x] - '0');
+            }
+        }
+        return of(digits);
+    }
+
+    public byte get(int x, int y) {
+        if (x < 0 || x >= cols() || y < 0 || y >= rows()) {
+            return outOfBounds;
+        }
+        return grid[y][x];
+    }
+
+    public byte get(Point p) {
+        return get(p.x(), p.y());
+    }
+
+    public void set(int x, int y, byte value) {
+        grid[y][x] = value;
+    }
+
+    public void set(Point p, byte value) {
+        set(p.x(), p.y(), value);
+    }
+
+    public byte[] row(int idx) {
+        return grid[idx];
+    }
+
+    @Override
+    public Byte at(int x, int y) {
+        return get(x, y);
+    }
+
+    /**
+     * The value as a digit character, so {@code 7} becomes {@code '7'}. Only meaningful for values from 0 to 9.
+     */
+    @Override
+    public char charAt(int x, int y) {
+        return (char) ('0' + get(x, y));
+    }
+
+    @Override
+    public int intAt(int x, int y) {
+        return get(x, y);
+    }
+
+    @Override
+    public int rows() {
+        return grid.length;
+    }
+
+    @Override
+    public int cols() {
+        return grid[0].length;
+    }
+
+    @Override
+    public Bounds bounds() {
+        return new Bounds(0, 0, cols() - 1, rows() - 1);
+    }
+}
@@ -46,14 +46,30 @@ public class CharGrid implements Grid<Character> {
     }
 
     public Character at(int x, int y) {
+        return charAt(x, y);
+    }
+
+    public Character at(Point p) {
+        return at(p.x(), p.y());
+    }
+
+    /**
+     * The character at the position, or a space when reading outside the grid.
+     */
+    @Override
+    public char charAt(int x, int y) {
         if (x < 0 || x >= cols() || y < 0 || y >= rows()) {
             return ' ';
         }
         return grid[y][x];
     }
 
-    public Character at(Point p) {
-        return at(p.x(), p.y());
+    /**
+     * The character at the position as its numeric code, so a digit {@code '7'} yields {@code 55}.
+     */
+    @Override
+    public int intAt(int x, int y) {
+        return charAt(x, y);
     }
 
     public int rows() {
@@ -76,7 +92,7 @@ public class CharGrid implements Grid<Character> {
         var matches = new ArrayList<Point>();
         for (var x = 0; x < cols(); x++) {
             for (var y = 0; y < rows(); y++) {
-                if (at(x, y) == c) {
+                if (grid[y][x] == c) {
                     matches.add(new Point(x, y));
                 }
             }
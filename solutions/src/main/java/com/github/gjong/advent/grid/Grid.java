@@ -3,6 +3,12 @@ package com.github.gjong.advent.grid;
 import com.github.gjong.advent.geo.Bounds;
 import com.github.gjong.advent.geo.Point;
 
+/**
+ * A two dimensional grid of values.
+ * <p>
+ * Next to the boxed {@link #at(int, int)} every grid offers the primitive accessors {@link #charAt(int, int)} and
+ * {@link #intAt(int, int)}. Hot loops should use these, they never allocate a wrapper for the value.
+ */
 public interface Grid<T> {
 
     T at(int x, int y);
@@ -11,6 +17,34 @@ public interface Grid<T> {
         return at(p.x(), p.y());
     }
 
+    /**
+     * The value at the position as a character, reading outside the grid returns the out of bounds value of the
+     * implementation.
+     */
+    char charAt(int x, int y);
+
+    default char charAt(Point p) {
+        return charAt(p.x(), p.y());
+    }
+
+    /**
+     * The value at the position as a number, reading outside the grid returns the out of bounds value of the
+     * implementation.
+     */
+    int intAt(int x, int y);
+
+    default int intAt(Point p) {
+        return intAt(p.x(), p.y());
+    }
+
+    default boolean inBounds(int x, int y) {
+        return x >= 0 && x < cols() && y >= 0 && y < rows();
+    }
+
+    default boolean inBounds(Point p) {
+        return inBounds(p.x(), p.y());
+    }
+
     int rows();
 
     int cols();
@@ -0,0 +1,105 @@
+package com.github.gjong.advent.grid;
+
+/**
+ * Keeps, for every cell of a grid, the number of active cells in the square window around it, not counting the
+ * cell itself. The initial counts are derived from a {@link SummedAreaTable}, after that activating or deactivating
+ * a cell only updates the counts of the cells within its window.
+ * <p>
+ * This turns erosion style puzzles, where cells disappear based on their neighbourhood, into a worklist: only the
+ * neighbours of a removed cell can change state, so there is no need to sweep the full grid again.
+ */
+public class NeighbourCounts {
+
+    /**
+     * Receives an active neighbour whose count was changed, together with the updated count.
+     */
+    @FunctionalInterface
+    public interface ChangeVisitor {
+        void accept(int x, int y, int count);
+    }
+
+    private final BitGrid active;
+    private final int radius;
+    private final int[] counts;
+
+    /**
+     * Start counting on a copy of the grid, the given grid is never changed.
+     *
+     * @param radius the distance from the center to the edge of the window, 1 results in the 8 touching cells
+     */
+    public NeighbourCounts(BitGrid grid, int radius) {
+        this.active = grid.copy();
+        this.radius = radius;
+        this.counts = new int[grid.rows() * grid.cols()];
+
+        var table = SummedAreaTable.of(grid);
+        for (var y = 0; y < grid.rows(); y++) {
+            for (var x = 0; x < grid.cols(); x++) {
+                var self = grid.get(x, y) ? 1 : 0;
+                counts[y * grid.cols() + x] = (int) table.window(x, y, radius) - self;
+            }
+        }
+    }
+
+    /**
+     * The number of active cells around the position, or 0 when the position is outside the grid.
+     */
+    public int count(int x, int y) {
+        if (!active.inBounds(x, y)) {
+            return 0;
+        }
+        return counts[y * active.cols() + x];
+    }
+
+    public boolean isActive(int x, int y) {
+        return active.get(x, y);
+    }
+
+    /**
+     * The grid of active cells as it currently is, this grid must not be changed directly.
+     */
+    public BitGrid active() {
+        return active;
+    }
+
+    /**
+     * Activate the cell and increment the count of all cells in its window.
+     */
+    public void activate(int x, int y, ChangeVisitor visitor) {
+        if (!active.get(x, y)) {
+            active.set(x, y);
+            update(x, y, 1, visitor);
+        }
+    }
+
+    /**
+     * Deactivate the cell and decrement the count of all cells in its window.
+     */
+    public void deactivate(int x, int y, ChangeVisitor visitor) {
+        if (active.get(x, y)) {
+            active.clear(x, y);
+            update(x, y, -1, visitor);
+        }
+    }
+
+    private void update(int x, int y, int delta, ChangeVisitor visitor) {
+        var cols = active.cols();
+        var top = Math.max(0, y - radius);
+        var bottom = Math.min(active.rows() - 1, y + radius);
+        var left = Math.max(0, x - radius);
+        var right = Math.min(cols - 1, x + radius);
+        for (var ny = top; ny <= bottom; ny++) {
+            for (var nx = left; nx <= right; nx++) {
+                if (nx == x && ny == y) {
+                    continue;
+                }
+
+                var idx = ny * cols + nx;
+                counts[idx] += delta;
+                if (active.get(nx, ny)) {
+                    visitor.accept(nx, ny, counts[idx]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.gjong.advent.grid;
+
+/**
+ * A summed-area table over the numeric values of a grid. After building the table in a single pass the sum of any
+ * rectangular area is answered in constant time, regardless of the size of the area.
+ * <p>
+ * Areas reaching outside the grid are clipped to the grid, so a window around a cell on the edge only sums the part
+ * that lies within the grid.
+ */
+public class SummedAreaTable {
+
+    private final int rows;
+    private final int cols;
+    // one extra leading row and column of zeros, so no bounds checks are needed while summing
+    private final long[] sums;
+
+    private SummedAreaTable(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+        this.sums = new long[(rows + 1) * (cols + 1)];
+    }
+
+    /**
+     * Build the table using {@link Grid#intAt(int, int)} as the value of every cell.
+     */
+    public static SummedAreaTable of(Grid<?> grid) {
+        var table = new SummedAreaTable(grid.rows(), grid.cols());
+        var stride = table.cols + 1;
+        for (var y = 0; y < table.rows; y++) {
+            var rowSum = 0L;
+            for (var x = 0; x < table.cols; x++) {
+                rowSum += grid.intAt(x, y);
+                table.sums[(y + 1) * stride + x + 1] = table.sums[y * stride + x + 1] + rowSum;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * The sum of all values in the rectangle between both corners, both inclusive.
+     */
+    public long sum(int x1, int y1, int x2, int y2) {
+        var left = Math.max(0, Math.min(x1, x2));
+        var top = Math.max(0, Math.min(y1, y2));
+        var right = Math.min(cols - 1, Math.max(x1, x2));
+        var bottom = Math.min(rows - 1, Math.max(y1, y2));
+        if (left > right || top > bottom) {
+            return 0;
+        }
+
+        var stride = cols + 1;
+        return sums[(bottom + 1) * stride + right + 1]
+                - sums[top * stride + right + 1]
+                - sums[(bottom + 1) * stride + left]
+                + sums[top * stride + left];
+    }
+
+    /**
+     * The sum of the square window with the given radius centered on the cell, including the cell itself.
+     */
+    public long window(int x, int y, int radius) {
+        return sum(x - radius, y - radius, x + radius, y + radius);
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+}
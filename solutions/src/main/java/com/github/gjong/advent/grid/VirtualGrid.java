@@ -1,14 +1,18 @@
 package com.github.gjong.advent.grid;
 
 import com.github.gjong.advent.geo.Bounds;
-import com.github.gjong.advent.geo.Point;
 
+/**
+ * A window of a fixed size on top of another grid, centered on a position that can be moved around. Coordinates
+ * passed to this grid are relative to the top left corner of the window.
+ */
 public class VirtualGrid<X> implements Grid<X> {
 
     private final Grid<X> delegate;
     private final int width;
     private final int height;
-    private Point locationInGrid;
+    private int left;
+    private int top;
 
     public VirtualGrid(Grid<X> delegate, int width, int height) {
         this.delegate = delegate;
@@ -17,26 +21,56 @@ public class VirtualGrid<X> implements Grid<X> {
     }
 
     public void position(int x, int y) {
-        locationInGrid = Point.of(x, y);
+        left = x - width / 2;
+        top = y - height / 2;
     }
 
     public X at() {
-        return delegate.at(locationInGrid.x(), locationInGrid.y());
+        return delegate.at(left + width / 2, top + height / 2);
+    }
+
+    /**
+     * The character at the center of the window.
+     */
+    public char charAt() {
+        return delegate.charAt(left + width / 2, top + height / 2);
     }
 
     @Override
     public X at(int x, int y) {
-        Bounds bounds = bounds();
-        int actualX = bounds.x() + x;
-        int actualY = bounds.y() + y;
-        return delegate.at(actualX, actualY);
+        return delegate.at(left + x, top + y);
+    }
+
+    @Override
+    public char charAt(int x, int y) {
+        return delegate.charAt(left + x, top + y);
+    }
+
+    @Override
+    public int intAt(int x, int y) {
+        return delegate.intAt(left + x, top + y);
     }
 
     public int count(X value) {
         int counted = 0;
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                if (at(x, y).equals(value)) {
+                if (value.equals(at(x, y))) {
+                    counted++;
+                }
+            }
+        }
+        return counted;
+    }
+
+    /**
+     * Count the positions in the window holding the character, without boxing any of the values.
+     */
+    public int count(char value) {
+        int counted = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (charAt(x, y) == value) {
                     counted++;
                 }
             }
@@ -56,12 +90,6 @@ public class VirtualGrid<X> implements Grid<X> {
 
     @Override
     public Bounds bounds() {
-        int halfWidth = width / 2;
-        int halfHeight = height / 2;
-        return new Bounds(
-                locationInGrid.x() - halfWidth,
-                locationInGrid.y() - halfHeight,
-                locationInGrid.x() + halfWidth,
-                locationInGrid.y() + halfHeight);
+        return new Bounds(left, top, left + width - 1, top + height - 1);
     }
 }
@@ -0,0 +1,119 @@
+package com.github.gjong.advent.reporter;
+
+import com.github.gjong.advent.Day;
+import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.LimitRuns;
+import com.github.gjong.advent.common.InputCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * Measures a single {@link DaySolver} by first running a number of warmup iterations, so the JIT has compiled the
+ * hot paths, followed by the measured iterations. Every measured iteration is kept as a separate sample in
+ * nanoseconds.
+ * <p>
+ * Parts annotated with {@link LimitRuns} are never warmed up and are measured at most the configured number of
+ * times.
+ * <p>
+ * Before the measured iterations the day is evicted from the {@link InputCache}, the first read of the input is
+ * reported as the cold parse and also serves as the preparation of the first measured iteration. All other
+ * iterations read the input with a warm cache. Solvers are expected to do all parsing in
+ * {@link DaySolver#readInput()}, otherwise the parse ends up in the first sample of a part.
+ */
+public class BenchmarkEngine {
+    private final Logger log = LoggerFactory.getLogger("AdventOfCode");
+
+    private final int warmupRuns;
+    private final int runs;
+
+    public BenchmarkEngine(int warmupRuns, int runs) {
+        if (runs < 1) {
+            throw new IllegalArgumentException("At least one measured run is required.");
+        }
+        this.warmupRuns = Math.max(0, warmupRuns);
+        this.runs = runs;
+    }
+
+    public BenchmarkResult measure(DaySolver solver) {
+        warmup(solver);
+        return sample(solver);
+    }
+
+    /**
+     * Run the warmup iterations for the solver, none of these iterations are recorded.
+     */
+    public void warmup(DaySolver solver) {
+        var part1Limit = limitedRunConfig(solver, 1);
+        var part2Limit = limitedRunConfig(solver, 2);
+
+        for (var run = 0; run < warmupRuns; run++) {
+            solver.readInput();
+            if (part1Limit == Integer.MAX_VALUE) solver.part1();
+            if (part2Limit == Integer.MAX_VALUE) solver.part2();
+        }
+    }
+
+    /**
+     * Run the measured iterations for the solver, without any warmup.
+     */
+    public BenchmarkResult sample(DaySolver solver) {
+        var part1Limit = limitedRunConfig(solver, 1);
+        var part2Limit = limitedRunConfig(solver, 2);
+
+        var day = solver.getClass().getAnnotation(Day.class);
+        InputCache.instance().evict(day.year(), day.day());
+        var coldPrepareSample = time(solver::readInput);
+
+        // the cold read doubles as the first preparation, so every run reads the input exactly once
+        var prepareSamples = new long[runs];
+        var part1Samples = new long[Math.min(part1Limit, runs)];
+        var part2Samples = new long[Math.min(part2Limit, runs)];
+        for (var run = 0; run < runs; run++) {
+            prepareSamples[run] = run == 0 ? coldPrepareSample : time(solver::readInput);
+            if (run < part1Samples.length) part1Samples[run] = time(solver::part1);
+            if (run < part2Samples.length) part2Samples[run] = time(solver::part2);
+        }
+
+        var result = new BenchmarkResult(
+                solver,
+                new BenchmarkResult.Measurement(part1Samples),
+                new BenchmarkResult.Measurement(part2Samples),
+                new BenchmarkResult.Measurement(prepareSamples),
+                new BenchmarkResult.Measurement(new long[]{coldPrepareSample}));
+        log.debug("{}: cold parsing {}, parsing {}, part 1 {}, part 2 {}.",
+                solver.getClass().getSimpleName(),
+                result.coldPreparation(),
+                result.preparation(),
+                result.part1(),
+                result.part2());
+        return result;
+    }
+
+    public int warmupRuns() {
+        return warmupRuns;
+    }
+
+    public int runs() {
+        return runs;
+    }
+
+    private static long time(Runnable runnable) {
+        var start = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - start;
+    }
+
+    private int limitedRunConfig(DaySolver solver, int part) {
+        try {
+            var method = solver.getClass().getMethod("part" + part);
+            return Optional.ofNullable(method.getAnnotation(LimitRuns.class))
+                    .map(LimitRuns::value)
+                    .orElse(Integer.MAX_VALUE);
+        } catch (NoSuchMethodException nme) {
+            log.warn("Method not found: {}", nme.getMessage());
+            return Integer.MAX_VALUE;
+        }
+    }
+}
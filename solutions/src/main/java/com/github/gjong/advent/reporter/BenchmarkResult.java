@@ -3,10 +3,76 @@ package com.github.gjong.advent.reporter;
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
 
-public record BenchmarkResult(DaySolver daySolver, Measurement part1, Measurement part2, Measurement preparation) {
-    public record Measurement(long totalTime, int runs) {
-        int computeAverage() {
-            return (int) (totalTime / runs);
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+public record BenchmarkResult(DaySolver daySolver,
+                              Measurement part1,
+                              Measurement part2,
+                              Measurement preparation,
+                              Measurement coldPreparation) {
+    /**
+     * All samples taken for a single part of a solution, in nanoseconds.
+     */
+    public record Measurement(long[] samples) {
+        public Measurement {
+            samples = samples.clone();
+            Arrays.sort(samples);
+        }
+
+        public int runs() {
+            return samples.length;
+        }
+
+        public long totalTime() {
+            return Arrays.stream(samples).sum();
+        }
+
+        public long average() {
+            return runs() == 0 ? 0 : totalTime() / runs();
+        }
+
+        public long min() {
+            return runs() == 0 ? 0 : samples[0];
+        }
+
+        public long median() {
+            return percentile(50);
+        }
+
+        public long p99() {
+            return percentile(99);
+        }
+
+        public long stddev() {
+            if (runs() < 2) return 0;
+
+            var mean = (double) totalTime() / runs();
+            var variance = 0d;
+            for (var sample : samples) {
+                variance += (sample - mean) * (sample - mean);
+            }
+            return Math.round(Math.sqrt(variance / (runs() - 1)));
+        }
+
+        /**
+         * Nearest-rank percentile over the sorted samples.
+         */
+        private long percentile(int percentile) {
+            if (runs() == 0) return 0;
+
+            var rank = (int) Math.ceil(percentile / 100d * runs());
+            return samples[Math.max(0, rank - 1)];
+        }
+
+        @Override
+        public String toString() {
+            return "min %s, median %s, p99 %s, stddev %s (%d runs)".formatted(
+                    prettify(min()),
+                    prettify(median()),
+                    prettify(p99()),
+                    prettify(stddev()),
+                    runs());
         }
     }
 
@@ -29,21 +95,26 @@ public record BenchmarkResult(DaySolver daySolver, Measurement part1, Measuremen
         return daySolver.getClass().getAnnotation(Day.class).name();
     }
 
+    public String coldPrepareTime() {
+        return prettify(coldPreparation.average());
+    }
+
     public String prepareTime() {
-        return prettify(preparation.computeAverage());
+        return prettify(preparation.average());
     }
 
     public String part1Time() {
-        return prettify(part1.computeAverage());
+        return prettify(part1.average());
     }
 
     public String part2Time() {
-        return prettify(part2.computeAverage());
+        return prettify(part2.average());
     }
 
-    private String prettify(int nanos) {
-        if (nanos == 0) return "-";
-        if (nanos > 1200) return (nanos / 1000) + "ms";
-        return nanos + "μs";
+    private static String prettify(long nanos) {
+        var micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        if (micros == 0) return "-";
+        if (micros > 1200) return (micros / 1000) + "ms";
+        return micros + "μs";
     }
 }
@@ -0,0 +1,104 @@
+package com.github.gjong.advent.reporter;
+
+import com.github.gjong.advent.DaySolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Spreads the days of one or more {@link BenchmarkSuite suites} over a bounded pool of worker threads.
+ * <p>
+ * In isolated mode the warmups of the days run concurrently, but a day takes its measured samples only while nothing
+ * else runs: sampling waits for all running warmups to finish and no new warmup starts until the samples are taken.
+ * The sampled day then has all cores to itself, including the common fork-join pool used by parallel streams. This
+ * keeps the reported latencies comparable to a sequential run while the JIT warmup is still spread over all
+ * workers.
+ */
+public class BenchmarkScheduler {
+    private final Logger log = LoggerFactory.getLogger("AdventOfCode");
+
+    private final int workers;
+    private final boolean isolated;
+    // warmups share the lock, sampling holds it exclusively
+    private final ReentrantReadWriteLock measurementLock = new ReentrantReadWriteLock(true);
+
+    public BenchmarkScheduler(int workers, boolean isolated) {
+        this.workers = Math.max(1, workers);
+        this.isolated = isolated;
+    }
+
+    /**
+     * Execute all suites and wait for them to complete.
+     *
+     * @return the wall time in nanoseconds it took to run all suites
+     */
+    public long execute(List<BenchmarkSuite> suites) {
+        var start = System.nanoTime();
+        if (workers == 1) {
+            suites.forEach(BenchmarkSuite::execute);
+        } else {
+            try (var pool = Executors.newFixedThreadPool(workers, new WorkerFactory())) {
+                suites.forEach(suite -> suite.submit(pool, this::measure));
+                suites.forEach(BenchmarkSuite::await);
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Log the total wall time of the run next to the sum of the individual day latencies.
+     */
+    public void reportThroughput(List<BenchmarkSuite> suites, long wallTime) {
+        var solvers = 0;
+        var latency = 0L;
+        for (var suite : suites) {
+            for (var result : suite.getResults()) {
+                solvers++;
+                latency += result.preparation().average() + result.part1().average() + result.part2().average();
+            }
+        }
+
+        log.info("Throughput: {} solvers in {}ms wall time using {} workers, sum of average latencies is {}ms.",
+                solvers,
+                TimeUnit.NANOSECONDS.toMillis(wallTime),
+                workers,
+                TimeUnit.NANOSECONDS.toMillis(latency));
+    }
+
+    private BenchmarkResult measure(BenchmarkEngine engine, DaySolver solver) {
+        if (!isolated) {
+            return engine.measure(solver);
+        }
+
+        measurementLock.readLock().lock();
+        try {
+            engine.warmup(solver);
+        } finally {
+            measurementLock.readLock().unlock();
+        }
+
+        measurementLock.writeLock().lock();
+        try {
+            return engine.sample(solver);
+        } finally {
+            measurementLock.writeLock().unlock();
+        }
+    }
+
+    private static class WorkerFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            var thread = new Thread(runnable, "benchmark-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
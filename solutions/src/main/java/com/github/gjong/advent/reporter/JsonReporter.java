@@ -4,6 +4,7 @@ import com.jongsoft.lang.Control;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 public class JsonReporter implements ReportWriter {
@@ -44,29 +45,37 @@ public class JsonReporter implements ReportWriter {
                     "name": "%s",
                     "instructionUri": "%s",
                     "sourceUri": "%s",
-                    "part1": {
-                        "total": %d,
-                        "runs": %d
-                    },
-                    "part2": {
-                        "total": %d,
-                        "runs": %d
-                    },
-                    "preparation": {
-                        "total": %d,
-                        "runs": %d
-                    }
+                    "part1": %s,
+                    "part2": %s,
+                    "preparation": %s,
+                    "coldPreparation": %s
                 }""".formatted(
                 result.day(),
                 result.name(),
                 result.instructionUri(),
                 result.codeUri(),
-                result.part1().totalTime(),
-                result.part1().runs(),
-                result.part2().totalTime(),
-                result.part2().runs(),
-                result.preparation().totalTime(),
-                result.preparation().runs());
+                convertMeasurement(result.part1()),
+                convertMeasurement(result.part2()),
+                convertMeasurement(result.preparation()),
+                convertMeasurement(result.coldPreparation()));
+    }
+
+    private String convertMeasurement(BenchmarkResult.Measurement measurement) {
+        return """
+                {
+                        "total": %d,
+                        "runs": %d,
+                        "min": %d,
+                        "median": %d,
+                        "p99": %d,
+                        "stddev": %d
+                    }""".formatted(
+                TimeUnit.NANOSECONDS.toMicros(measurement.totalTime()),
+                measurement.runs(),
+                TimeUnit.NANOSECONDS.toMicros(measurement.min()),
+                TimeUnit.NANOSECONDS.toMicros(measurement.median()),
+                TimeUnit.NANOSECONDS.toMicros(measurement.p99()),
+                TimeUnit.NANOSECONDS.toMicros(measurement.stddev()));
     }
 
     private void ensureOutputDirectoryExists() {
@@ -4,7 +4,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class MarkdownReporter implements ReportWriter {
-    private static final String LINE_TEMPLATE = "| % 5d |  %02d  | %-35s | %-7s | %-7s | %-7s | %-35s |\n";
+    private static final String LINE_TEMPLATE = "| % 5d |  %02d  | %-35s | %-7s | %-7s | %-7s | %-7s | %-35s |\n";
 
     private final Logger log = LoggerFactory.getLogger("AdventOfCode");
 
@@ -25,7 +25,7 @@ class MarkdownReporter implements ReportWriter {
     }
 
     private void addResultTable(StringBuilder sb, BenchmarkSuite suite) {
-        sb.append("| %-5s | %-4s | %-35s | %-7s | %-7s | %-7s | %-35s |\n".formatted("Year", "Day", "Name", "Parsing", "Part 1", "Part 2", "Assignment"));
+        sb.append("| %-5s | %-4s | %-35s | %-7s | %-7s | %-7s | %-7s | %-35s |\n".formatted("Year", "Day", "Name", "Cold", "Parsing", "Part 1", "Part 2", "Assignment"));
         for (var dayResult : suite.getResults()) {
             sb.append(LINE_TEMPLATE.formatted(
                     suite.getYear(),
@@ -33,6 +33,7 @@ class MarkdownReporter implements ReportWriter {
                     "[%s](%s)".formatted(
                             dayResult.name(),
                             dayResult.codeUri()),
+                    dayResult.coldPrepareTime(),
                     dayResult.prepareTime(),
                     dayResult.part1Time(),
                     dayResult.part2Time(),
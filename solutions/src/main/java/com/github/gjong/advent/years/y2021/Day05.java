@@ -7,14 +7,12 @@ import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
 import com.github.gjong.advent.geo.Vector;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
-import static java.lang.Integer.parseInt;
-
 @Day(day = 5, year = 2021, name = "Hydrothermal Venture")
 public class Day05 implements DaySolver {
     private final InputLoader inputLoader;
@@ -27,7 +25,7 @@ public class Day05 implements DaySolver {
 
     @Override
     public void part1() {
-        var vectors = inputLoader.splitOnNewLine()
+        var vectors = inputLoader.intsPerLine()
                 .map(Day05::toVector)
                 .filter(Predicate.not(Vector::isDiagonal))
                 .toList();
@@ -46,7 +44,7 @@ public class Day05 implements DaySolver {
 
     @Override
     public void part2() {
-        var vectors = inputLoader.splitOnNewLine()
+        var vectors = inputLoader.intsPerLine()
                 .map(Day05::toVector)
                 .filter(vector -> vector.isDiagonal() || vector.isHorizontal() || vector.isVertical())
                 .toList();
@@ -66,17 +64,15 @@ public class Day05 implements DaySolver {
         validator.part2(totalCount);
     }
 
-    private static final Pattern vectorPattern = Pattern.compile("([0-9]+),([0-9]+) -> ([0-9]+),([0-9]+)");
-    static Vector toVector(String line) {
-        var match = vectorPattern.matcher(line);
-        if (match.matches()) {
-            var start = new Point(parseInt(match.group(1)), parseInt(match.group(2)));
-            var end = new Point(parseInt(match.group(3)), parseInt(match.group(4)));
+    static Vector toVector(int[] coordinates) {
+        if (coordinates.length == 4) {
+            var start = new Point(coordinates[0], coordinates[1]);
+            var end = new Point(coordinates[2], coordinates[3]);
 
             return new Vector(start, end);
         }
 
-        throw new IllegalArgumentException("Line does not match regex: " + line);
+        throw new IllegalArgumentException("Line does not contain a vector: " + Arrays.toString(coordinates));
     }
 
     record Grid(int width, int height) {
@@ -2,24 +2,48 @@ package com.github.gjong.advent.years.y2021;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.algo.StateEvolution;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
 import java.math.BigInteger;
-import java.util.Arrays;
-
-import static java.lang.Integer.parseInt;
+import java.util.stream.IntStream;
 
 @Day(day = 6, year = 2021, name = "Lanternfish")
 public class Day06 implements DaySolver {
+    private static final int RESET_AGE = 6;
+    private static final int NEWBORN_AGE = 8;
+
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private StateEvolution<Integer> lanternfish;
+    private StateEvolution<Integer>.Population school;
+
     public Day06(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
+    @Override
+    public void readInput() {
+        lanternfish = StateEvolution.explore(
+                IntStream.rangeClosed(0, NEWBORN_AGE).boxed().toList(),
+                (timer, transitions) -> {
+                    if (timer == 0) {
+                        transitions.add(RESET_AGE);
+                        transitions.add(NEWBORN_AGE);
+                    } else {
+                        transitions.add(timer - 1);
+                    }
+                });
+
+        school = lanternfish.population();
+        for (var timer : inputLoader.ints()) {
+            school.add(timer, 1);
+        }
+    }
+
     @Override
     public void part1() {
         validator.part1(solve(80));
@@ -30,46 +54,7 @@ public class Day06 implements DaySolver {
         validator.part2(solve(256));
     }
 
-    public BigInteger solve(int amountOfDays) {
-        var fishOnDayStart = new long[Simulator.MAX_REPRODUCTION_AGE];
-
-        Arrays.stream(inputLoader.split(","))
-                .forEach(startAmount -> fishOnDayStart[parseInt(startAmount.trim())]++);
-
-        return new Simulator(amountOfDays)
-                .simulateWithStart(fishOnDayStart);
-    }
-
-    static class Simulator {
-        public static final int MAX_REPRODUCTION_AGE = 9;
-        private final int amountOFDays;
-
-        public Simulator(int amountOFDays) {
-            this.amountOFDays = amountOFDays;
-        }
-
-        public BigInteger simulateWithStart(long[] amountOfFisherPerDay) {
-            BigInteger[] fishCycles = new BigInteger[MAX_REPRODUCTION_AGE];
-            for (var idx=0; idx < amountOfFisherPerDay.length; idx++) {
-                fishCycles[idx] = BigInteger.valueOf(amountOfFisherPerDay[idx]);
-            }
-
-            var currentDay = 0;
-            while (currentDay < amountOFDays) {
-                var newBorn = fishCycles[0];
-                System.arraycopy(fishCycles, 1, fishCycles, 0, MAX_REPRODUCTION_AGE - 1);
-
-                fishCycles[6] = fishCycles[6].add(newBorn);
-                fishCycles[MAX_REPRODUCTION_AGE - 1] = newBorn;
-                currentDay++;
-            }
-
-            BigInteger result = BigInteger.ZERO;
-            for (BigInteger fishCycle : fishCycles) {
-                result = result.add(fishCycle);
-            }
-
-            return result;
-        }
+    public BigInteger solve(long amountOfDays) {
+        return lanternfish.evolve(school, amountOfDays).total();
     }
 }
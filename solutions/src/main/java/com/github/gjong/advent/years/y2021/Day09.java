@@ -2,7 +2,7 @@ package com.github.gjong.advent.years.y2021;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.grid.CharGrid;
+import com.github.gjong.advent.grid.ByteGrid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
@@ -25,13 +25,13 @@ public class Day09 implements DaySolver {
 
     @Override
     public void part1() {
-        var grid = inputLoader.charGrid();
+        var grid = ByteGrid.of(inputLoader.digitGrid());
 
         var sumLowers = 0;
         for (var row = 0; row < grid.rows(); row++) {
             for (var column = 0; column < grid.cols(); column++) {
-                if (isLowestOfNeighbours(grid.grid(), row, column)) {
-                    sumLowers += grid.at(column, row) - '0' + 1;
+                if (isLowestOfNeighbours(grid, row, column)) {
+                    sumLowers += grid.get(column, row) + 1;
                 }
             }
         }
@@ -40,11 +40,11 @@ public class Day09 implements DaySolver {
 
     @Override
     public void part2() {
-        var grid = inputLoader.charGrid();
+        var grid = ByteGrid.of(inputLoader.digitGrid());
         var lowestPoints = new ArrayList<Point>();
         for (var row = 0; row < grid.rows(); row++) {
             for (var column = 0; column < grid.cols(); column++) {
-                if (isLowestOfNeighbours(grid.grid(), row, column)) {
+                if (isLowestOfNeighbours(grid, row, column)) {
                     lowestPoints.add(new Point(row, column));
                 }
             }
@@ -60,17 +60,17 @@ public class Day09 implements DaySolver {
         validator.part2((long) basin.get(0) * basin.get(1) * basin.get(2));
     }
 
-    boolean isLowestOfNeighbours(char[][] grid, int row, int column) {
-        var value = grid[row][column];
+    boolean isLowestOfNeighbours(ByteGrid grid, int row, int column) {
+        var value = grid.get(column, row);
 
-        return (row == 0 || grid[row - 1][column] > value)
-                && (column == 0 || grid[row][column - 1] > value)
-                && (column == (grid[0].length - 1) || grid[row][column + 1] > value)
-                && (row == (grid.length - 1) || grid[row + 1][column] > value);
+        return (row == 0 || grid.get(column, row - 1) > value)
+                && (column == 0 || grid.get(column - 1, row) > value)
+                && (column == (grid.cols() - 1) || grid.get(column + 1, row) > value)
+                && (row == (grid.rows() - 1) || grid.get(column, row + 1) > value);
     }
 
-    private int expandBasin(CharGrid grid, int row, int column) {
-        if (outOfBounds(row, column) || (grid.at(column, row) - '0') == 9 || visited[row][column]) {
+    private int expandBasin(ByteGrid grid, int row, int column) {
+        if (outOfBounds(row, column) || grid.get(column, row) == 9 || visited[row][column]) {
             return 0;
         }
         visited[row][column] = true;
@@ -2,196 +2,254 @@ package com.github.gjong.advent.years.y2021;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.Memoize;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
-import java.util.*;
-import java.util.function.BiPredicate;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Day(day = 12, year = 2021, name = "Passage Pathing")
 public class Day12 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private CaveSystem caves;
+
     public Day12(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
     @Override
-    public void part1() {
-        var graph = processInput();
-
-        var resolver = new RouteResolver<>(graph, this::canVisit);
-        var routes = resolver.resolveAllRoutes(
-                graph.computeIfAbsent("start"),
-                graph.computeIfAbsent("end"));
-
-        validator.part1(routes.size());
+    public void readInput() {
+        caves = inputLoader.parsed("caves", loader -> CaveSystem.of(loader.splitOnNewLine().toList()));
     }
 
     @Override
-    public void part2() {
-        var graph = processInput();
-        var resolver = new RouteResolver<>(graph, this::canVisit2);
-        var routes = resolver.resolveAllRoutes(
-                graph.computeIfAbsent("start"),
-                graph.computeIfAbsent("end"));
-
-        validator.part2(routes.size());
-    }
-
-    private Graph<String> processInput() {
-        var graph = new Graph<String>();
-        inputLoader.splitOnNewLine()
-                .forEach(line -> {
-                    var path = line.trim().split("-");
-                    graph.addPath(
-                            graph.computeIfAbsent(path[0]),
-                            graph.computeIfAbsent(path[1]));
-                });
-        return graph;
+    public void part1() {
+        validator.part1(caves.countPaths(false));
     }
 
-    private boolean canVisit(GraphNode<String> node, Route<String> route) {
-        if (node.value().equalsIgnoreCase("start")) {
-            return false;
-        }
-
-        if (!node.value().equals(node.value().toUpperCase())) {
-            return !route.containsNode(node);
-        }
-
-        return true;
+    @Override
+    public void part2() {
+        validator.part2(caves.countPaths(true));
     }
 
-    private boolean canVisit2(GraphNode<String> node, Route<String> route) {
-        if (node.value().equalsIgnoreCase("start")) {
-            return false;
-        }
-
-        if (isBigCave(node.value())) {
-            return true;
-        }
-
-        if (route.containsNode(node)) {
-            return route.getSteps()
-                    .stream()
-                    .filter(step -> !isBigCave(step.value()))
-                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                    .values()
-                    .stream()
-                    .noneMatch(count -> count > 1);
+    /**
+     * The caves interned to int ids, with the passages as adjacency arrays. A set of visited small caves fits in a
+     * single long, so there can be at most 64 caves.
+     */
+    static final class CaveSystem {
+        private static final String START = "start";
+        private static final String END = "end";
+
+        private final String[] names;
+        private final boolean[] big;
+        private final int[][] passages;
+        private final int start;
+        private final int end;
+
+        private CaveSystem(String[] names, boolean[] big, int[][] passages, int start, int end) {
+            this.names = names;
+            this.big = big;
+            this.passages = passages;
+            this.start = start;
+            this.end = end;
         }
 
-        return true;
-    }
-
-    private boolean isBigCave(String caveName) {
-        return caveName.equals(caveName.toUpperCase());
-    }
-
-    record GraphNode<T>(T value) {}
+        /**
+         * The number of distinct paths from start to end, without materializing any of them.
+         *
+         * @param allowRevisit whether a single small cave may be visited twice
+         */
+        long countPaths(boolean allowRevisit) {
+            return new PathCounter(this).paths(start, 1L << start, allowRevisit ? 0 : 1);
+        }
+
+        /**
+         * All paths from start to end as cave names, found one at a time while the stream is consumed.
+         *
+         * @param allowRevisit whether a single small cave may be visited twice
+         */
+        Stream<List<String>> routes(boolean allowRevisit) {
+            var iterator = new RouteIterator(this, allowRevisit);
+            return StreamSupport.stream(
+                    Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                    false);
+        }
+
+        static CaveSystem of(List<String> lines) {
+            var ids = new HashMap<String, Integer>();
+            var names = new ArrayList<String>();
+            var neighbours = new ArrayList<List<Integer>>();
+            for (var line : lines) {
+                if (line.isBlank()) {
+                    continue;
+                }
 
-    static class Graph<T> {
-        private final Set<GraphNode<T>> nodes;
-        private final Map<GraphNode<T>, Set<GraphNode<T>>> paths;
+                var path = line.trim().split("-");
+                var from = ids.computeIfAbsent(path[0], name -> {
+                    names.add(name);
+                    neighbours.add(new ArrayList<>());
+                    return names.size() - 1;
+                });
+                var to = ids.computeIfAbsent(path[1], name -> {
+                    names.add(name);
+                    neighbours.add(new ArrayList<>());
+                    return names.size() - 1;
+                });
+                neighbours.get(from).add(to);
+                neighbours.get(to).add(from);
+            }
 
-        public Graph() {
-            nodes = new HashSet<>();
-            paths = new HashMap<>();
-        }
+            if (names.size() > Long.SIZE) {
+                throw new IllegalArgumentException("At most %d caves are supported, found %d."
+                        .formatted(Long.SIZE, names.size()));
+            }
+            if (!ids.containsKey(START) || !ids.containsKey(END)) {
+                throw new IllegalArgumentException("The caves must contain both a start and an end.");
+            }
 
-        public GraphNode<T> computeIfAbsent(T value) {
-            for (var node : nodes) {
-                if (Objects.equals(node.value(), value)) {
-                    return node;
-                }
+            var big = new boolean[names.size()];
+            var passages = new int[names.size()][];
+            for (var cave = 0; cave < names.size(); cave++) {
+                big[cave] = names.get(cave).equals(names.get(cave).toUpperCase());
+                passages[cave] = neighbours.get(cave).stream().mapToInt(Integer::intValue).toArray();
             }
 
-            var node = new GraphNode<>(value);
-            nodes.add(node);
-            return node;
+            return new CaveSystem(names.toArray(String[]::new), big, passages, ids.get(START), ids.get(END));
         }
 
-        public void addPath(GraphNode<T> start, GraphNode<T> end) {
-            paths.computeIfAbsent(start, key -> new HashSet<>()).add(end);
-            paths.computeIfAbsent(end, key -> new HashSet<>()).add(start);
+        /**
+         * Whether the path may continue into the cave, with the small caves already visited and whether the single
+         * revisit of a small cave was used. Returns the revisit flag after entering the cave, or {@code -1} when the
+         * cave cannot be entered.
+         */
+        private int enter(int cave, long visited, int revisitUsed) {
+            if (cave == start) {
+                return -1;
+            }
+            if (big[cave] || (visited & (1L << cave)) == 0) {
+                return revisitUsed;
+            }
+            return revisitUsed == 0 ? 1 : -1;
         }
 
-        public Set<GraphNode<T>> getConnectedNodes(GraphNode<T> node) {
-            return Set.copyOf(paths.get(node));
+        private long visit(int cave, long visited) {
+            return big[cave] ? visited : visited | (1L << cave);
         }
     }
 
-    static class Route<T> {
-        private final GraphNode<T> start;
-        private final GraphNode<T> end;
-
-        private final List<GraphNode<T>> steps;
+    /**
+     * Counts paths with a depth first search memoized on the current cave, the visited small caves and whether the
+     * revisit was used. Paths sharing such a state have the same number of ways to reach the end.
+     */
+    static class PathCounter {
+        private final CaveSystem caves;
+        private final Day12PathCounterComputePathsMemo memo;
 
-        public Route(GraphNode<T> start, GraphNode<T> end) {
-            this.start = start;
-            this.end = end;
-            this.steps = new ArrayList<>();
-        }
-
-        public GraphNode<T> getEnd() {
-            return end;
+        PathCounter(CaveSystem caves) {
+            this.caves = caves;
+            this.memo = new Day12PathCounterComputePathsMemo();
         }
 
-        public boolean containsNode(GraphNode<T> node) {
-            return steps.contains(node);
+        long paths(int cave, long visited, int revisitUsed) {
+            return memo.get(cave, visited, revisitUsed, this::computePaths);
         }
 
-        public List<GraphNode<T>> getSteps() {
-            return steps;
-        }
-
-        public Route<T> addStep(GraphNode<T> node) {
-            var updatedRoute = new Route<>(start, end);
-            updatedRoute.steps.addAll(steps);
-            updatedRoute.steps.add(node);
-            return updatedRoute;
-        }
+        @Memoize
+        long computePaths(int cave, long visited, int revisitUsed) {
+            if (cave == caves.end) {
+                return 1;
+            }
 
-        @Override
-        public String toString() {
-            return start + steps.toString();
+            var paths = 0L;
+            for (var next : caves.passages[cave]) {
+                var revisit = caves.enter(next, visited, revisitUsed);
+                if (revisit >= 0) {
+                    paths += paths(next, caves.visit(next, visited), revisit);
+                }
+            }
+            return paths;
         }
     }
 
-    static class RouteResolver<T> {
+    /**
+     * Walks the paths depth first with an explicit stack, only holding the path currently being explored.
+     */
+    private static final class RouteIterator implements Iterator<List<String>> {
+        private final CaveSystem caves;
 
-        private final Graph<T> graph;
-        private final BiPredicate<GraphNode<T>, Route<T>> visitAllowed;
+        private int[] path = new int[16];
+        private int[] nextPassage = new int[16];
+        private long[] visited = new long[16];
+        private int[] revisitUsed = new int[16];
+        private int depth;
+        private List<String> found;
 
-        public RouteResolver(Graph<T> graph, BiPredicate<GraphNode<T>, Route<T>> visitAllowed) {
-            this.visitAllowed = visitAllowed;
-            this.graph = graph;
+        private RouteIterator(CaveSystem caves, boolean allowRevisit) {
+            this.caves = caves;
+            path[0] = caves.start;
+            visited[0] = 1L << caves.start;
+            revisitUsed[0] = allowRevisit ? 0 : 1;
         }
 
-        public List<Route<T>> resolveAllRoutes(GraphNode<T> start, GraphNode<T> end) {
-            return resolveNextStep(
-                    new Route<>(start, end),
-                    start);
-        }
+        @Override
+        public boolean hasNext() {
+            while (found == null && depth >= 0) {
+                var cave = path[depth];
+                if (cave == caves.end || nextPassage[depth] == caves.passages[cave].length) {
+                    depth--;
+                    continue;
+                }
 
-        public List<Route<T>> resolveNextStep(Route<T> existingRoute, GraphNode<T> fromNode) {
-            var routes = new ArrayList<Route<T>>();
-            for (var nextStep : graph.getConnectedNodes(fromNode)) {
-                if (nextStep == existingRoute.getEnd()) {
-                    routes.add(existingRoute.addStep(nextStep));
-                } else if (visitAllowed.test(nextStep, existingRoute)) {
-                    routes.addAll(
-                            resolveNextStep(
-                                    existingRoute.addStep(nextStep),
-                                    nextStep));
+                var next = caves.passages[cave][nextPassage[depth]++];
+                var revisit = caves.enter(next, visited[depth], revisitUsed[depth]);
+                if (revisit < 0) {
+                    continue;
                 }
+
+                push(next, caves.visit(next, visited[depth]), revisit);
+                if (next == caves.end) {
+                    found = Arrays.stream(path, 0, depth + 1)
+                            .mapToObj(step -> caves.names[step])
+                            .toList();
+                }
+            }
+            return found != null;
+        }
+
+        @Override
+        public List<String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            var route = found;
+            found = null;
+            return route;
+        }
+
+        private void push(int cave, long visitedCaves, int revisit) {
+            depth++;
+            if (depth == path.length) {
+                path = Arrays.copyOf(path, depth * 2);
+                nextPassage = Arrays.copyOf(nextPassage, depth * 2);
+                visited = Arrays.copyOf(visited, depth * 2);
+                revisitUsed = Arrays.copyOf(revisitUsed, depth * 2);
             }
-            return routes;
+            path[depth] = cave;
+            nextPassage[depth] = 0;
+            visited[depth] = visitedCaves;
+            revisitUsed[depth] = revisit;
         }
     }
 }
@@ -5,6 +5,7 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.grid.BitGrid;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -77,51 +78,43 @@ public class Day13 implements DaySolver {
 
     static class Matrix {
 
-        boolean[][] grid;
+        private final BitGrid grid;
 
-        private Matrix(boolean[][] grid) {
+        private Matrix(BitGrid grid) {
             this.grid = grid;
         }
 
         public Matrix(int width, int height) {
-            grid = new boolean[height][width];
+            grid = new BitGrid(height, width);
         }
 
         public void activateBit(int x, int y) {
-            grid[y][x] = true;
+            grid.set(x, y);
         }
 
         public int countActive() {
-            int count = 0;
-            for (var row : grid) {
-                for (var column : row) {
-                    if (column) {
-                        count++;
-                    }
-                }
-            }
-            return count;
+            return grid.count();
         }
 
         public int size() {
-            return grid.length * grid[0].length;
+            return grid.rows() * grid.cols();
         }
 
         public Matrix foldOnX(int x) {
-            var width = Math.max(x - 1, grid[0].length - x - 2);
+            var width = Math.max(x - 1, grid.cols() - x - 2);
             var leftShifted = x - width - 1;
 
-            boolean[][] newGrid = new boolean[grid.length][width + 1];
-            for (var row = 0; row < grid.length; row ++) {
-                for (var column = 0; column < grid[0].length; column++) {
-                    if (column == x) {
+            var newGrid = new BitGrid(grid.rows(), width + 1);
+            for (var row = 0; row < grid.rows(); row ++) {
+                for (var column = 0; column < grid.cols(); column++) {
+                    if (column == x || !grid.get(column, row)) {
                         continue;
                     }
                     if (column <= x) {
-                        newGrid[row][column + leftShifted] |= grid[row][column];
+                        newGrid.set(column + leftShifted, row);
                     } else {
                         var newXPos = (width + 1) - (column - x);
-                        newGrid[row][newXPos] |= grid[row][column];
+                        newGrid.set(newXPos, row);
                     }
                 }
             }
@@ -130,11 +123,11 @@ public class Day13 implements DaySolver {
         }
 
         public Matrix foldOnY(int y) {
-            var height = Math.max(y - 1, grid.length - y - 2);
+            var height = Math.max(y - 1, grid.rows() - y - 2);
             var topShifted = y - height - 1;
 
-            boolean[][] newGrid = new boolean[height + 1][grid[0].length];
-            for (var row = 0; row < grid.length; row ++) {
+            var newGrid = new BitGrid(height + 1, grid.cols());
+            for (var row = 0; row < grid.rows(); row ++) {
                 if (row == y) {
                     continue;
                 }
@@ -146,23 +139,14 @@ public class Day13 implements DaySolver {
                     shiftedY = (height + 1) - (row - y);
                 }
 
-                for (var column = 0; column < grid[0].length; column++) {
-                    newGrid[shiftedY][column] |= grid[row][column];
-                }
+                newGrid.orRow(shiftedY, grid, row);
             }
 
             return new Matrix(newGrid);
         }
 
         public String toString() {
-            var builder = new StringBuilder();
-            for (var row : grid) {
-                for (var column : row) {
-                    builder.append(column ? "#" : " ");
-                }
-                builder.append("\n");
-            }
-            return builder.toString();
+            return grid.print('#', ' ');
         }
     }
 }
@@ -5,168 +5,144 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
-import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
 
-import static java.lang.Integer.parseInt;
-import static java.lang.Long.parseLong;
-
 @Day(day = 16, year = 2021, name = "Packet Decoder")
 public class Day16 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private List<Transmission> transmissions;
+
     public Day16(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
+    /**
+     * The outcome of decoding a single transmission.
+     */
+    record Transmission(long versionSum, long value) {}
+
     @Override
-    public void part1() {
-        var instructions = inputLoader.splitOnNewLine()
-                .map(HexDecoder::parseOperations)
-                .toList();
+    public void readInput() {
+        transmissions = inputLoader.parsed("transmissions", loader -> loader.lines()
+                .filter(line -> !line.isEmpty())
+                .map(line -> new PacketDecoder(line).decode())
+                .toList());
+    }
 
-        var cumulativeVersion = 0;
-        for (var instruction : instructions) {
-            cumulativeVersion += computeVersion(instruction);
-        }
+    @Override
+    public void part1() {
+        var cumulativeVersion = transmissions.stream()
+                .mapToLong(Transmission::versionSum)
+                .sum();
 
         validator.part1(cumulativeVersion);
     }
 
     @Override
     public void part2() {
-        var instructions = inputLoader.splitOnNewLine()
-                .map(HexDecoder::parseOperations)
-                .toList();
-
-        var computedValue = instructions.getFirst().getLiteralValue();
-        validator.part2(computedValue);
+        validator.part2(transmissions.getFirst().value());
     }
 
-    private int computeVersion(EncodedOperation operation) {
-        int summedVersion = operation.getVersion();
-
-        for (var child : operation.getSubOperations()) {
-            summedVersion += computeVersion(child);
+    /**
+     * Decodes a hexadecimal transmission straight from its characters. Bits are pulled from the characters as they
+     * are needed, and every packet is evaluated as soon as it is read, so no bit string or packet tree is built.
+     */
+    static class PacketDecoder {
+        private static final int SUM = 0;
+        private static final int PRODUCT = 1;
+        private static final int MINIMUM = 2;
+        private static final int MAXIMUM = 3;
+        private static final int LITERAL = 4;
+        private static final int GREATER_THAN = 5;
+        private static final int LESS_THAN = 6;
+        private static final int EQUAL_TO = 7;
+
+        private final CharSequence hex;
+        private int nextChar;
+        private long buffered;
+        private int bufferedBits;
+        private long position;
+        private long versionSum;
+
+        PacketDecoder(CharSequence hex) {
+            this.hex = hex;
         }
 
-        return summedVersion;
-    }
-
-    static class EncodedOperation {
-        private final int version;
-        private final int type;
-
-        private long literalValue;
-        private final List<EncodedOperation> subOperations;
-
-        EncodedOperation(int version, int type) {
-            this.version = version;
-            this.type = type;
-            this.subOperations = new ArrayList<>();
+        Transmission decode() {
+            var value = packet();
+            return new Transmission(versionSum, value);
         }
 
-        public void setLiteralValue(long literalValue) {
-            this.literalValue = literalValue;
-        }
+        private long packet() {
+            versionSum += read(3);
+            var type = (int) read(3);
+            if (type == LITERAL) {
+                var value = 0L;
+                var more = true;
+                while (more) {
+                    more = read(1) == 1;
+                    value = (value << 4) | read(4);
+                }
+                return value;
+            }
 
-        public long getLiteralValue() {
-            var subProcessor = getSubOperations()
-                    .stream()
-                    .map(EncodedOperation::getLiteralValue);
-
-            return switch (getType()) {
-                case 0 -> subProcessor.reduce(0L, Long::sum);
-                case 1 -> subProcessor.reduce(1L, (value, acc) -> value * acc);
-                case 2 -> subProcessor.min(Long::compareTo).orElse(0L);
-                case 3 -> subProcessor.max(Long::compareTo).orElse(0L);
-                case 4 -> literalValue;
-                case 5 -> getSubOperations().get(0).getLiteralValue() > getSubOperations().get(1).getLiteralValue()
-                        ? 1 : 0;
-                case 6 -> getSubOperations().get(0).getLiteralValue() < getSubOperations().get(1).getLiteralValue()
-                        ? 1 : 0;
-                case 7 -> getSubOperations().get(0).getLiteralValue() == getSubOperations().get(1).getLiteralValue()
-                        ? 1 : 0;
-                default -> throw new IllegalStateException("Unsupported type " + getType());
+            var result = switch (type) {
+                case PRODUCT -> 1L;
+                case MINIMUM -> Long.MAX_VALUE;
+                case MAXIMUM -> Long.MIN_VALUE;
+                default -> 0L;
             };
-        }
-
-        public int getType() {
-            return type;
-        }
-
-        public int getVersion() {
-            return version;
-        }
-
-        public List<EncodedOperation> getSubOperations() {
-            return subOperations;
-        }
-
-    }
-
-    static class HexDecoder {
-
-        public static EncodedOperation parseOperations(String hexOperation) {
-            var bitRepresentation = new StringBuilder();
-            for (var hex : hexOperation.toCharArray()) {
-                var bits = new BigInteger(String.valueOf(hex), 16).toString(2);
-                bitRepresentation.append("%4s".formatted(bits).replace(' ', '0'));
+            if (read(1) == 0) {
+                var end = read(15) + position;
+                for (var index = 0; position < end; index++) {
+                    result = combine(type, result, packet(), index);
+                }
+            } else {
+                var subPackets = read(11);
+                for (var index = 0; index < subPackets; index++) {
+                    result = combine(type, result, packet(), index);
+                }
             }
-
-            List<EncodedOperation> operations = new ArrayList<>();
-            processBitString(bitRepresentation.toString(), 0, operations);
-            return operations.getFirst();
+            return result;
         }
 
-        private static int processBitString(String bitRepresentation, int startPosition, List<EncodedOperation> operations) {
-            var index = startPosition;
-            var version = parseInt(bitRepresentation.substring(index, index + 3), 2);
-            var type = parseInt(bitRepresentation.substring(index + 3, index + 6), 2);
-
-            var operation = new EncodedOperation(version, type);
-            operations.add(operation);
-
-            index += 6;
-            if (type == 4) {
-                // literal value
-                var notAtEnd = true;
-                var bitBuilder = new StringBuilder();
-
-                while (notAtEnd) {
-                    notAtEnd = bitRepresentation.charAt(index) == '1';
-                    bitBuilder.append(bitRepresentation, index + 1, index + 5);
-                    index += 5;
-                }
+        /**
+         * Fold the value of a sub packet into the result of the operator. Comparisons keep the first value as their
+         * result until the second value arrives.
+         */
+        private static long combine(int type, long result, long value, int index) {
+            return switch (type) {
+                case SUM -> result + value;
+                case PRODUCT -> result * value;
+                case MINIMUM -> Math.min(result, value);
+                case MAXIMUM -> Math.max(result, value);
+                case GREATER_THAN -> index == 0 ? value : result > value ? 1 : 0;
+                case LESS_THAN -> index == 0 ? value : result < value ? 1 : 0;
+                case EQUAL_TO -> index == 0 ? value : result == value ? 1 : 0;
+                default -> throw new IllegalStateException("Unsupported type " + type);
+            };
+        }
 
-                operation.setLiteralValue(parseLong(bitBuilder.toString(), 2));
-            } else {
-                // sub operation
-                var lengthTypeId = bitRepresentation.charAt(index);
-
-                index++;
-                if (lengthTypeId == '0') {
-                    var bitLength = parseInt(bitRepresentation.substring(index, index + 15), 2);
-                    index += 15;
-
-                    var endPosition = index + bitLength;
-                    while (index < endPosition) {
-                        index = processBitString(bitRepresentation, index, operation.getSubOperations());
-                    }
-                } else {
-                    var subOperationCount = parseInt(bitRepresentation.substring(index, index + 11), 2);
-                    index += 11;
-                    for (var currentSub = 0; currentSub < subOperationCount; currentSub++) {
-                        index = processBitString(bitRepresentation, index, operation.getSubOperations());
-                    }
+        /**
+         * Read the next number of bits, at most 32, as an unsigned value.
+         */
+        private long read(int bits) {
+            while (bufferedBits < bits) {
+                if (nextChar == hex.length()) {
+                    throw new IllegalStateException("Transmission ended in the middle of a packet.");
                 }
+                buffered = (buffered << 4) | Character.digit(hex.charAt(nextChar++), 16);
+                bufferedBits += 4;
             }
 
-            return index;
+            bufferedBits -= bits;
+            position += bits;
+            var value = (buffered >>> bufferedBits) & ((1L << bits) - 1);
+            buffered &= (1L << bufferedBits) - 1;
+            return value;
         }
     }
-
 }
@@ -5,32 +5,34 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
-import java.util.ArrayList;
-import java.util.List;
-
-import static java.lang.Integer.parseInt;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 @Day(day = 18, year = 2021, name = "Snailfish")
 public class Day18 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private SnailNumber[] snailNumbers;
+
     public Day18(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
     @Override
-    public void part1() {
-        SnailNumber snailNumber = null;
-        for (var line : inputLoader.splitOnNewLine().toList()) {
-            if (snailNumber == null) {
-                snailNumber = SnailNumber.generateSnailNumber(line);
-            } else {
-                snailNumber = snailNumber.add(SnailNumber.generateSnailNumber(line));
-            }
+    public void readInput() {
+        snailNumbers = inputLoader.parsed("snail-numbers", loader -> loader.lines()
+                .filter(line -> !line.isEmpty())
+                .map(SnailNumber::parse)
+                .toArray(SnailNumber[]::new));
+    }
 
-            snailNumber.reduce();
+    @Override
+    public void part1() {
+        var snailNumber = snailNumbers[0];
+        for (var index = 1; index < snailNumbers.length; index++) {
+            snailNumber = snailNumber.add(snailNumbers[index]);
         }
 
         validator.part1(snailNumber.magnitude());
@@ -38,280 +40,174 @@ public class Day18 implements DaySolver {
 
     @Override
     public void part2() {
-        var snailNumbers = inputLoader.splitOnNewLine().toList();
-        var maxMagnitude = Long.MIN_VALUE;
-        for (var index = 0; index < snailNumbers.size(); index++) {
-            for (var computeIndex = 0; computeIndex < snailNumbers.size(); computeIndex++) {
-                if (computeIndex == index)
-                    continue;
-                var addedSnail = SnailNumber.generateSnailNumber(snailNumbers.get(index))
-                        .add(SnailNumber.generateSnailNumber(snailNumbers.get(computeIndex)));
-
-                addedSnail.reduce();
-                var magnitude = addedSnail.magnitude();
-                if (magnitude > maxMagnitude) {
-                    maxMagnitude = magnitude;
-                }
-            }
-        }
+        // every ordered pair of distinct numbers is a separate task, as addition is not commutative
+        var count = snailNumbers.length;
+        var maxMagnitude = IntStream.range(0, count * count)
+                .parallel()
+                .filter(pair -> pair / count != pair % count)
+                .mapToLong(pair -> snailNumbers[pair / count].add(snailNumbers[pair % count]).magnitude())
+                .max()
+                .orElseThrow();
 
         validator.part2(maxMagnitude);
     }
 
-    interface SnailNumber {
-
-        default int size() {
-            return 0;
-        }
-
-        SnailNumber getParent();
-
-        default void setParent(SnailNumberPair parent) {}
-
-        default int value() {
-            return 0;
-        }
-
-        default long magnitude() {
-            return value();
-        }
-
-        default SnailNumber add(SnailNumber fishNumber) {
-            var newPair = new SnailNumberPair();
-            newPair.setPair(this, fishNumber);
-            setParent(newPair);
-            fishNumber.setParent(newPair);
-            return newPair;
-        }
-
-        default boolean split() {
-            return false;
-        }
-
-        default boolean explode(int depth) {
-            return false;
-        }
-
-        default void reduce() {
-            boolean isComplete = false;
-            while (!isComplete) {
-                if (explode(0)) {
-                    continue;
-                }
-
-                if (split()) {
-                    continue;
+    /**
+     * A reduced snailfish number stored as its regular numbers from left to right, each with the number of pairs
+     * it is nested in. The pair structure follows from the depths, so exploding and splitting only shift entries in
+     * the arrays. Numbers are immutable, adding two of them creates a new number.
+     */
+    static final class SnailNumber {
+        private static final int EXPLODE_DEPTH = 5;
+        private static final int SPLIT_VALUE = 10;
+
+        private final int[] depths;
+        private final int[] values;
+
+        private SnailNumber(int[] depths, int[] values) {
+            this.depths = depths;
+            this.values = values;
+        }
+
+        static SnailNumber parse(CharSequence line) {
+            var depths = new int[line.length()];
+            var values = new int[line.length()];
+            var size = 0;
+            var depth = 0;
+            for (var index = 0; index < line.length(); index++) {
+                var character = line.charAt(index);
+                switch (character) {
+                    case '[' -> depth++;
+                    case ']' -> depth--;
+                    case ',' -> {}
+                    default -> {
+                        var value = 0;
+                        while (index < line.length() && Character.isDigit(line.charAt(index))) {
+                            value = value * 10 + line.charAt(index++) - '0';
+                        }
+                        index--;
+                        depths[size] = depth;
+                        values[size] = value;
+                        size++;
+                    }
                 }
-
-                isComplete = true;
             }
-        }
 
-        static SnailNumber of(int value) {
-            return new SnailNumberPrimitive(value);
+            var number = new SnailNumber(Arrays.copyOf(depths, size), Arrays.copyOf(values, size));
+            return number.reduce(size);
         }
 
-        static SnailNumber of(SnailNumberPair parent, double value) {
-            var newValue = new SnailNumberPrimitive((int) value);
-            newValue.setParent(parent);
-            return newValue;
-        }
-
-        static SnailNumber zero(SnailNumberPair parent) {
-            var newFishValue = new SnailNumberPrimitive(0);
-            newFishValue.setParent(parent);
-            return newFishValue;
-        }
-
-        static SnailNumber generateSnailNumber(String line) {
-            List<Character> characters = new ArrayList<>(line.length());
-            for (char character : line.toCharArray())
-                characters.add(character);
-
-            return generateSnailNumber(characters);
-        }
-
-        static SnailNumber generateSnailNumber(List<Character> line) {
-            while (!line.isEmpty()) {
-                char nextCharacter = line.removeFirst();
-
-                if (nextCharacter == '[') {
-                    var fishPair = new SnailNumberPair();
-                    var leftValue = generateSnailNumber(line);
-                    leftValue.setParent(fishPair);
-
-                    line.removeFirst(); // remove ,
-                    var rightValue = generateSnailNumber(line);
-                    rightValue.setParent(fishPair);
-                    line.removeFirst(); // remove ]
-
-                    fishPair.setPair(leftValue, rightValue);
-                    return fishPair;
-                } else {
-                    return new SnailNumberPrimitive(parseInt(String.valueOf(nextCharacter)));
+        /**
+         * Add the other number to the right of this one and reduce the result.
+         */
+        SnailNumber add(SnailNumber other) {
+            var size = values.length + other.values.length;
+            // a split adds one regular number, room for a few keeps most reductions from growing the arrays
+            var sum = new SnailNumber(new int[size + 8], new int[size + 8]);
+            for (var index = 0; index < values.length; index++) {
+                sum.depths[index] = depths[index] + 1;
+                sum.values[index] = values[index];
+            }
+            for (var index = 0; index < other.values.length; index++) {
+                sum.depths[values.length + index] = other.depths[index] + 1;
+                sum.values[values.length + index] = other.values[index];
+            }
+            return sum.reduce(size);
+        }
+
+        /**
+         * Fold the regular numbers from left to right on a stack, replacing the top two entries by their magnitude
+         * whenever they form a pair.
+         */
+        long magnitude() {
+            var stackValues = new long[values.length];
+            var stackDepths = new int[values.length];
+            var top = 0;
+            for (var index = 0; index < values.length; index++) {
+                var value = (long) values[index];
+                var depth = depths[index];
+                while (top > 0 && stackDepths[top - 1] == depth) {
+                    value = 3 * stackValues[--top] + 2 * value;
+                    depth--;
+                }
+                stackValues[top] = value;
+                stackDepths[top] = depth;
+                top++;
+            }
+            return stackValues[0];
+        }
+
+        /**
+         * Reduce the first size regular numbers. Only a sum of two reduced numbers can be nested too deep, so all
+         * explosions happen in a single sweep first. After that, a split can only produce a single pair that has to
+         * explode, which happens right away before looking for the next split from the number left of it.
+         */
+        private SnailNumber reduce(int size) {
+            var current = this;
+            for (var index = 0; index < size; index++) {
+                if (current.depths[index] >= EXPLODE_DEPTH) {
+                    size = current.explode(index, size);
                 }
             }
 
-            return null;
-        }
-    }
-
-    static class SnailNumberPair implements SnailNumber {
-        private SnailNumberPair parent;
-        private final SnailNumber[] values = new SnailNumber[2];
-
-        @Override
-        public SnailNumberPair getParent() {
-            return parent;
-        }
-
-        public void setParent(SnailNumberPair parent) {
-            this.parent = parent;
-        }
-
-        public void setPair(SnailNumber left, SnailNumber right) {
-            values[0] = left;
-            values[1] = right;
-        }
-
-        public SnailNumber left() {
-            return values[0];
-        }
-
-        public SnailNumber right() {
-            return values[1];
-        }
-
-        @Override
-        public int size() {
-            return 2;
-        }
-
-        @Override
-        public boolean split() {
-            return values[0].split() || values[1].split();
-        }
+            var index = 0;
+            while (index < size) {
+                if (current.values[index] < SPLIT_VALUE) {
+                    index++;
+                    continue;
+                }
 
-        void combineOnIndex(int index, int value) {
-            var step = 0;
-            var locateIndex = (index + 1) % 2;
-            SnailNumber investigate = this;
-            while (step < 2) {
-                switch (step) {
-                    case 0 -> {
-                        if (investigate.getParent() == null) {
-                            return;
-                        } else if (((SnailNumberPair)investigate.getParent()).values[index] == investigate) {
-                            investigate = investigate.getParent();
-                        } else {
-                            step++;
-                            investigate = ((SnailNumberPair)investigate.getParent()).values[index];
-                        }
-                    }
-                    case 1 -> {
-                        if (investigate.size() == 1) {
-                            step++;
-                            ((SnailNumberPrimitive) investigate).increment(value);
-                        } else {
-                            investigate = ((SnailNumberPair)investigate).values[locateIndex];
-                        }
-                    }
+                current = current.split(index, size++);
+                if (current.depths[index] >= EXPLODE_DEPTH) {
+                    size = current.explode(index, size);
+                    index = Math.max(0, index - 1);
                 }
             }
-        }
 
-        void replace(SnailNumber old, SnailNumber with) {
-            if (values[0] == old) {
-                values[0] = with;
-            } else if (values[1] == old) {
-                values[1] = with;
-            } else {
-                throw new IllegalStateException("Replace request received for %s, but its not a child of %s.".formatted(old, this));
+            if (size == current.values.length) {
+                return current;
             }
+            return new SnailNumber(Arrays.copyOf(current.depths, size), Arrays.copyOf(current.values, size));
         }
 
-        @Override
-        public boolean explode(int depth) {
-            if (depth >= 4 && values[0].size() == 1 && values[1].size() == 1) {
-                combineOnIndex(0, values[0].value());
-                combineOnIndex(1, values[1].value());
-
-                parent.replace(this, SnailNumber.zero(parent));
-                return true;
+        /**
+         * Explode the pair starting at the index into a single zero.
+         *
+         * @return the new number of regular numbers
+         */
+        private int explode(int index, int size) {
+            if (index > 0) {
+                values[index - 1] += values[index];
             }
-
-            return values[0].explode(depth + 1) || values[1].explode(depth + 1);
-        }
-
-        @Override
-        public long magnitude() {
-            return 3 * values[0].magnitude() + 2 * values[1].magnitude();
-        }
-
-        @Override
-        public String toString() {
-            return "[%s,%s]".formatted(values[0], values[1]);
-        }
-    }
-
-    static class SnailNumberPrimitive implements SnailNumber {
-
-        private SnailNumberPair parent;
-        private int value;
-
-        public SnailNumberPrimitive(int value) {
-            this.value = value;
-        }
-
-        public int value() {
-            return value;
-        }
-
-        @Override
-        public SnailNumberPair getParent() {
-            return parent;
-        }
-
-        @Override
-        public void setParent(SnailNumberPair parent) {
-            this.parent = parent;
-        }
-
-        @Override
-        public int size() {
-            return 1;
-        }
-
-        @Override
-        public boolean split() {
-            if (value > 9) {
-                var newPair = new SnailNumberPair();
-                newPair.setParent(parent);
-                newPair.setPair(
-                        SnailNumber.of(newPair, Math.floor(value / 2D)),
-                        SnailNumber.of(newPair, Math.ceil(value / 2D)));
-
-                if (parent.left() == this) {
-                    parent.setPair(newPair, parent.right());
-                } else if (parent.right() == this){
-                    parent.setPair(parent.left(), newPair);
-                } else {
-                    throw new IllegalStateException("Neither left nor right of my parent is me.");
-                }
-
-                return true;
+            if (index + 2 < size) {
+                values[index + 2] += values[index + 1];
             }
 
-            return false;
+            values[index] = 0;
+            depths[index]--;
+            System.arraycopy(values, index + 2, values, index + 1, size - index - 2);
+            System.arraycopy(depths, index + 2, depths, index + 1, size - index - 2);
+            return size - 1;
         }
 
-        @Override
-        public String toString() {
-            return String.valueOf(value);
-        }
+        /**
+         * Split the regular number at the index into a pair, growing the arrays when they are full.
+         */
+        private SnailNumber split(int index, int size) {
+            var target = this;
+            if (size == values.length) {
+                target = new SnailNumber(Arrays.copyOf(depths, size * 2), Arrays.copyOf(values, size * 2));
+            }
 
-        public void increment(int value) {
-            this.value += value;
+            var value = target.values[index];
+            var depth = target.depths[index] + 1;
+            System.arraycopy(target.values, index + 1, target.values, index + 2, size - index - 1);
+            System.arraycopy(target.depths, index + 1, target.depths, index + 2, size - index - 1);
+            target.values[index] = value / 2;
+            target.values[index + 1] = value - value / 2;
+            target.depths[index] = depth;
+            target.depths[index + 1] = depth;
+            return target;
         }
     }
 }
@@ -2,194 +2,225 @@ package com.github.gjong.advent.years.y2021;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.LimitRuns;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
+import java.math.BigInteger;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.function.Predicate;
-
-import static java.lang.Integer.parseInt;
 
 @Day(day = 21, year = 2021, name = "Dirac Dice")
 public class Day21 implements DaySolver {
+    private static final DiracGame GAME = new DiracGame(10, 3);
+
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    private static final List<QuantumDice> DICE_OPTIONS = List.of(
-            new QuantumDice(() -> 3, 1),
-            new QuantumDice(() -> 4, 3),
-            new QuantumDice(() -> 5, 6),
-            new QuantumDice(() -> 6, 7),
-            new QuantumDice(() -> 7, 6),
-            new QuantumDice(() -> 8, 3),
-            new QuantumDice(() -> 9, 1));
+    private int pawn1Position;
+    private int pawn2Position;
 
     public Day21(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
-
     @Override
-    public void part1() {
+    public void readInput() {
         var lines = inputLoader.splitOnNewLine().toList();
-        var pawn1Position = parseInt(lines.getFirst().substring(28));
-        var pawn2Position = parseInt(lines.getLast().substring(28));
-
-        var lowestScore = new AtomicInteger();
-        var totalThrows = new AtomicInteger();
-        var diracDice = new DiracDice.SimpleDice();
-        new DiracGame(player -> player.score() >= 1000) {
-            @Override
-            protected List<RoundResult> computeRound(RoundResult previousRound) {
-                totalThrows.addAndGet(3);
-                var nextState = previousRound.gameState().throwDice(diracDice);
-                return List.of(new RoundResult(nextState, 1));
-            }
-
-            @Override
-            protected void wonGame(RoundResult result) {
-                lowestScore.set(Math.min(
-                        result.gameState().players()[0].score(),
-                        result.gameState().players()[1].score()));
-            }
-        }
-                .setupBoard(new int[]{pawn1Position, pawn2Position})
-                .playGame();
+        pawn1Position = Integer.parseInt(lines.getFirst().substring(28).trim());
+        pawn2Position = Integer.parseInt(lines.getLast().substring(28).trim());
+    }
 
-        validator.part1(totalThrows.get() * lowestScore.get());
+    @Override
+    public void part1() {
+        validator.part1(GAME.practice(pawn1Position, pawn2Position, 100, 1000));
     }
 
     @Override
-    @LimitRuns
     public void part2() {
-        var lines = inputLoader.splitOnNewLine().toList();
-        var pawn1Position = parseInt(lines.getFirst().substring(28));
-        var pawn2Position = parseInt(lines.getLast().substring(28));
-
-        var player1Wins = new AtomicLong();
-        var player2Wins = new AtomicLong();
-
-        new DiracGame(player -> player.score() >= 21) {
-            @Override
-            protected List<RoundResult> computeRound(RoundResult previousRound) {
-                var originalState = previousRound.gameState();
-                return DICE_OPTIONS.stream()
-                        .map(dice -> new RoundResult(
-                                originalState.throwDice(dice.diceValues),
-                                previousRound.weight() * dice.odds))
-                        .toList();
-            }
-
-            @Override
-            protected void wonGame(RoundResult result) {
-                if (result.gameState().players()[0].score() >= 21) {
-                    player1Wins.addAndGet(result.weight());
-                } else {
-                    player2Wins.addAndGet(result.weight());
-                }
-            }
-        }
-                .setupBoard(new int[]{pawn1Position, pawn2Position})
-                .playGame();
-
-        validator.part2(Math.max(player1Wins.get(), player2Wins.get()));
+        var outcome = GAME.quantum(pawn1Position, pawn2Position, 3, 21);
+        validator.part2(outcome.firstWins().max(outcome.secondWins()));
     }
 
-    interface DiracDice {
-
-        int roll();
-
-        class SimpleDice implements DiracDice {
-            private int currentValue;
-
-            @Override
-            public int roll() {
-                return increase() + increase() + increase();
-            }
-
-            private int increase() {
-                currentValue++;
-                if (currentValue > 100) {
-                    currentValue -= 100;
+    /**
+     * The number of universes in which each player wins.
+     */
+    record Outcome(BigInteger firstWins, BigInteger secondWins) {}
+
+    /**
+     * A game of Dirac Dice for two players on a circular board, positions and rolls are counted from one.
+     *
+     * @param boardSize    the number of spaces on the board
+     * @param rollsPerTurn the number of times the die is rolled every turn
+     */
+    record DiracGame(int boardSize, int rollsPerTurn) {
+
+        /**
+         * Play with a deterministic die that rolls 1, 2, 3 and so on, wrapping after the last face.
+         *
+         * @return the score of the losing player multiplied by the number of rolls
+         */
+        long practice(int firstPosition, int secondPosition, int dieFaces, int threshold) {
+            var positions = new int[]{firstPosition - 1, secondPosition - 1};
+            var scores = new int[2];
+            var rolls = 0L;
+            for (var player = 0; ; player = 1 - player) {
+                var moved = 0;
+                for (var roll = 0; roll < rollsPerTurn; roll++) {
+                    moved += (int) (rolls++ % dieFaces) + 1;
+                }
+                positions[player] = (positions[player] + moved) % boardSize;
+                scores[player] += positions[player] + 1;
+                if (scores[player] >= threshold) {
+                    return scores[1 - player] * rolls;
                 }
-                return currentValue;
             }
         }
-    }
-
-    private record QuantumDice(DiracDice diceValues, int odds) {
-    }
-
-    private abstract class DiracGame {
 
-        private final Predicate<Player> wonRule;
-        private GameState startState;
-
-        public DiracGame(Predicate<Player> wonRule) {
-            this.wonRule = wonRule;
-        }
-
-        public DiracGame setupBoard(int[] startPositionPlayers) {
-            var players = new Player[startPositionPlayers.length];
-            for (var index = 0; index < startPositionPlayers.length; index++) {
-                players[index] = new Player(startPositionPlayers[index] - 1, 0);
+        /**
+         * Play with a die that splits the universe for every face it can roll. The players never influence each
+         * other, so the universes of every player are counted on their own: a dynamic program over a dense table of
+         * packed position and score, advanced one turn at a time, tracks in how many universes the player finishes
+         * on each turn and in how many the player is still playing. The first player wins when finishing on a turn
+         * the second player is still playing, the second player wins when finishing before the first player's next
+         * turn. The work is bounded by {@code boardSize * threshold² * distinct roll totals} per player.
+         * <p>
+         * The counts are kept in longs and computed again using {@link BigInteger} when they overflow.
+         */
+        Outcome quantum(int firstPosition, int secondPosition, int dieFaces, int threshold) {
+            var rollTotals = rollTotals(dieFaces);
+            try {
+                var first = turns(firstPosition - 1, rollTotals, threshold);
+                var second = turns(secondPosition - 1, rollTotals, threshold);
+
+                var firstWins = 0L;
+                var secondWins = 0L;
+                for (var turn = 1; turn < first.finished().length; turn++) {
+                    firstWins = Math.addExact(firstWins, Math.multiplyExact(
+                            first.finished()[turn], second.playing()[turn - 1]));
+                    secondWins = Math.addExact(secondWins, Math.multiplyExact(
+                            second.finished()[turn], first.playing()[turn]));
+                }
+                return new Outcome(BigInteger.valueOf(firstWins), BigInteger.valueOf(secondWins));
+            } catch (ArithmeticException overflow) {
+                var first = largeTurns(firstPosition - 1, rollTotals, threshold);
+                var second = largeTurns(secondPosition - 1, rollTotals, threshold);
+
+                var firstWins = BigInteger.ZERO;
+                var secondWins = BigInteger.ZERO;
+                for (var turn = 1; turn < first.finished().length; turn++) {
+                    firstWins = firstWins.add(first.finished()[turn].multiply(second.playing()[turn - 1]));
+                    secondWins = secondWins.add(second.finished()[turn].multiply(first.playing()[turn]));
+                }
+                return new Outcome(firstWins, secondWins);
             }
-            this.startState = new GameState(0, players);
-            return this;
         }
 
-        public void playGame() {
-            computeGameState(new RoundResult(startState, 1));
-        }
-
-        private void computeGameState(RoundResult currentState) {
-            var hasWinner = computeWinningPlayer(currentState.gameState);
-            if (hasWinner.isPresent()) {
-                wonGame(currentState);
-            } else {
-                computeRound(currentState)
-                        .forEach(this::computeGameState);
+        /**
+         * For every turn, the number of universes in which a single player reaches the threshold on that turn and
+         * in which the player has not reached it yet after that turn.
+         */
+        private record Turns(long[] finished, long[] playing) {}
+
+        private record LargeTurns(BigInteger[] finished, BigInteger[] playing) {}
+
+        private Turns turns(int start, long[] rollTotals, int threshold) {
+            // every turn scores at least one point, so nobody plays more turns than the threshold
+            var finished = new long[threshold + 1];
+            var playing = new long[threshold + 1];
+            var universes = new long[boardSize * threshold];
+            universes[start * threshold] = 1;
+            playing[0] = 1;
+
+            for (var turn = 1; turn <= threshold && playing[turn - 1] > 0; turn++) {
+                var next = new long[universes.length];
+                for (var position = 0; position < boardSize; position++) {
+                    for (var score = 0; score < threshold; score++) {
+                        var current = universes[position * threshold + score];
+                        if (current == 0) {
+                            continue;
+                        }
+
+                        for (var total = 0; total < rollTotals.length; total++) {
+                            if (rollTotals[total] == 0) {
+                                continue;
+                            }
+
+                            var moved = (position + total) % boardSize;
+                            var scored = score + moved + 1;
+                            var split = Math.multiplyExact(current, rollTotals[total]);
+                            if (scored >= threshold) {
+                                finished[turn] = Math.addExact(finished[turn], split);
+                            } else {
+                                next[moved * threshold + scored] = Math.addExact(next[moved * threshold + scored], split);
+                                playing[turn] = Math.addExact(playing[turn], split);
+                            }
+                        }
+                    }
+                }
+                universes = next;
             }
+            return new Turns(finished, playing);
         }
 
-        protected abstract void wonGame(RoundResult result);
-
-        protected abstract List<RoundResult> computeRound(RoundResult previousRound);
-
-        protected Optional<Player> computeWinningPlayer(GameState gameState) {
-            for (var player : gameState.players()) {
-                if (wonRule.test(player)) {
-                    return Optional.of(player);
+        private LargeTurns largeTurns(int start, long[] rollTotals, int threshold) {
+            var finished = zeros(threshold + 1);
+            var playing = zeros(threshold + 1);
+            var universes = zeros(boardSize * threshold);
+            universes[start * threshold] = BigInteger.ONE;
+            playing[0] = BigInteger.ONE;
+
+            for (var turn = 1; turn <= threshold && playing[turn - 1].signum() > 0; turn++) {
+                var next = zeros(universes.length);
+                for (var position = 0; position < boardSize; position++) {
+                    for (var score = 0; score < threshold; score++) {
+                        var current = universes[position * threshold + score];
+                        if (current.signum() == 0) {
+                            continue;
+                        }
+
+                        for (var total = 0; total < rollTotals.length; total++) {
+                            if (rollTotals[total] == 0) {
+                                continue;
+                            }
+
+                            var moved = (position + total) % boardSize;
+                            var scored = score + moved + 1;
+                            var split = current.multiply(BigInteger.valueOf(rollTotals[total]));
+                            if (scored >= threshold) {
+                                finished[turn] = finished[turn].add(split);
+                            } else {
+                                next[moved * threshold + scored] = next[moved * threshold + scored].add(split);
+                                playing[turn] = playing[turn].add(split);
+                            }
+                        }
+                    }
                 }
+                universes = next;
             }
-
-            return Optional.empty();
+            return new LargeTurns(finished, playing);
         }
 
-        public record Player(int position, int score) {
-            public Player move(int positions) {
-                var newPosition = (position + positions) % 10;
-                var newScore = score + (newPosition + 1);
-                return new Player(newPosition, newScore);
+        /**
+         * In how many universes every total of a turn is rolled, indexed by the total.
+         */
+        private long[] rollTotals(int dieFaces) {
+            var universes = new long[]{1};
+            for (var roll = 0; roll < rollsPerTurn; roll++) {
+                var next = new long[universes.length + dieFaces];
+                for (var total = 0; total < universes.length; total++) {
+                    for (var face = 1; face <= dieFaces; face++) {
+                        next[total + face] = Math.addExact(next[total + face], universes[total]);
+                    }
+                }
+                universes = next;
             }
+            return universes;
         }
 
-        public record RoundResult(GameState gameState, long weight) {
-        }
-
-        public record GameState(int playerTurn, Player[] players) {
-            public GameState throwDice(DiracDice dice) {
-                var diceResults = dice.roll();
-                var updatePlayers = Arrays.copyOf(players, players.length);
-                updatePlayers[playerTurn] = players[playerTurn].move(diceResults);
-                return new GameState((playerTurn + 1) % players.length, updatePlayers);
-            }
+        private static BigInteger[] zeros(int size) {
+            var zeros = new BigInteger[size];
+            Arrays.fill(zeros, BigInteger.ZERO);
+            return zeros;
         }
     }
 }
@@ -2,13 +2,12 @@ package com.github.gjong.advent.years.y2022;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.algo.CycleDetection;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Function;
-import java.util.stream.Stream;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 import static java.lang.Integer.parseInt;
 import static java.lang.Long.parseLong;
@@ -18,129 +17,233 @@ public class Day11 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private MonkeySimulator simulator;
+
     public Day11(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
+    @Override
+    public void readInput() {
+        simulator = inputLoader.parsed("monkeys", loader -> MonkeySimulator.of(loader.split("\n\n")));
+    }
+
     @Override
     public void part1() {
-        validator.part1(solve(b -> (long) Math.floor(b / 3.0), 20));
+        validator.part1(monkeyBusiness(simulator.inspections(20, true, false)));
     }
 
     @Override
     public void part2() {
-        validator.part2(solve(b -> b, 10000));
+        validator.part2(monkeyBusiness(simulator.inspections(10000, false, true)));
     }
 
-    private long solve(Function<Long, Long> worryReducer, int numberOfRounds) {
-        var monkeys = Stream.of(inputLoader.split("\n\n"))
-                .map(raw -> Monkey.of(raw, worryReducer))
-                .toList();
-
-        var maxNumber = monkeys.stream()
-                .mapToLong(m -> m.getResolution().divisible())
-                .reduce((left, right) -> left * right)
-                .orElse(1);
-
-        for (var round = 0; round < numberOfRounds; round++) {
-            for (var monkey : monkeys) {
-                monkey.processRound()
-                        .forEach(instruction ->
-                                monkeys.get(instruction.toMonkey())
-                                        .addWorry(instruction.worryLevel() % maxNumber));
-            }
-        }
-
-        return monkeys.stream()
-                .map(Monkey::getNumberOfInspections)
-                .map(x -> -x)
-                .sorted()
-                .limit(2)
-                .map(Math::abs)
-                .reduce((left, right) -> left * right)
-                .orElse(0L);
+    private long monkeyBusiness(long[] inspections) {
+        var sorted = inspections.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length - 1] * sorted[sorted.length - 2];
     }
 
-    static class Monkey {
+    /**
+     * Simulates the monkeys one item at a time. An item never influences another item, so every item follows its
+     * own path through the monkeys and the inspections of all items are summed afterward. The rules are compiled
+     * into primitive arrays indexed by monkey, worry levels are kept modulo the product of all divisors, which keeps
+     * every divisibility test intact.
+     */
+    static final class MonkeySimulator {
+        private static final int ADD = 0;
+        private static final int MULTIPLY = 1;
+        private static final int SQUARE = 2;
+
+        private final int[] operations;
+        private final long[] operands;
+        private final long[] divisors;
+        private final int[] throwIfTrue;
+        private final int[] throwIfFalse;
+        private final int[] itemMonkeys;
+        private final long[] itemWorries;
+        private final long modulus;
+
+        private MonkeySimulator(
+                int[] operations,
+                long[] operands,
+                long[] divisors,
+                int[] throwIfTrue,
+                int[] throwIfFalse,
+                int[] itemMonkeys,
+                long[] itemWorries) {
+            this.operations = operations;
+            this.operands = operands;
+            this.divisors = divisors;
+            this.throwIfTrue = throwIfTrue;
+            this.throwIfFalse = throwIfFalse;
+            this.itemMonkeys = itemMonkeys;
+            this.itemWorries = itemWorries;
+            this.modulus = Arrays.stream(divisors).reduce(1, (left, right) -> left * right);
+        }
 
-        record Resolution(long divisible, int throwIfTrue, int throwIfFalse) {
-            Instruction resolve(long worry) {
-                var target = worry % divisible == 0 ? throwIfTrue : throwIfFalse;
-                return new Instruction(target, worry);
+        /**
+         * The number of inspections of every monkey after the given number of rounds.
+         *
+         * @param relief       divide the worry level by three after every inspection
+         * @param detectCycles skip repeating rounds of an item, only possible without relief as dividing breaks the
+         *                     modulo arithmetic
+         */
+        long[] inspections(long rounds, boolean relief, boolean detectCycles) {
+            if (relief && detectCycles) {
+                throw new IllegalArgumentException("Cycle detection cannot be combined with relief.");
             }
-        }
 
-        record Instruction(int toMonkey, long worryLevel) {
+            return IntStream.range(0, itemMonkeys.length)
+                    .parallel()
+                    .mapToObj(item -> {
+                        var inspections = new long[operations.length];
+                        var state = new Item(itemMonkeys[item], itemWorries[item]);
+                        if (detectCycles) {
+                            simulateCycling(state, rounds, inspections);
+                        } else {
+                            simulate(state, rounds, relief, inspections);
+                        }
+                        return inspections;
+                    })
+                    .reduce(new long[operations.length], (left, right) -> {
+                        var sum = new long[left.length];
+                        Arrays.setAll(sum, monkey -> left[monkey] + right[monkey]);
+                        return sum;
+                    });
         }
 
-        private List<Long> items;
-
-        private Resolution resolution;
-
-        private Function<Long, Long> operation;
+        /**
+         * Find the cycle in the rounds of the item, count the inspections of the rounds before the cycle and of one
+         * pass through the cycle, after which the remaining rounds follow by multiplication.
+         */
+        private void simulateCycling(Item item, long rounds, long[] inspections) {
+            var start = new Item(item.monkey, item.worry);
+            var cycle = CycleDetection.brent(
+                    () -> new Item(start.monkey, start.worry),
+                    state -> round(state, false, null),
+                    state -> state.monkey * modulus + state.worry,
+                    rounds);
+            if (cycle.isEmpty() || cycle.get().start() >= rounds) {
+                simulate(item, rounds, false, inspections);
+                return;
+            }
 
-        private Function<Long, Long> worryReducer;
+            var found = cycle.get();
+            simulate(item, found.start(), false, inspections);
 
-        private long numberOfInspections;
+            var perCycle = new long[inspections.length];
+            simulate(item, found.length(), false, perCycle);
+            var cycles = (rounds - found.start()) / found.length();
+            for (var monkey = 0; monkey < inspections.length; monkey++) {
+                inspections[monkey] += perCycle[monkey] * cycles;
+            }
 
-        public Monkey() {
-            items = new ArrayList<>();
-            numberOfInspections = 0;
+            simulate(item, (rounds - found.start()) % found.length(), false, inspections);
         }
 
-        public void addWorry(long worry) {
-            this.items.add(worry);
+        private void simulate(Item item, long rounds, boolean relief, long[] inspections) {
+            for (var round = 0L; round < rounds; round++) {
+                round(item, relief, inspections);
+            }
         }
 
-        public List<Instruction> processRound() {
-            numberOfInspections += items.size();
-            var instructions = items.stream()
-                    .map(x -> operation.apply(x))
-                    .map(worryReducer)
-                    .map(x -> resolution.resolve(x))
-                    .toList();
-            items.clear();
-            return instructions;
+        /**
+         * Move the item through a single round. Monkeys take turns in order, so an item thrown to a later monkey is
+         * inspected again in the same round.
+         */
+        private void round(Item item, boolean relief, long[] inspections) {
+            var monkey = item.monkey;
+            var worry = item.worry;
+            while (true) {
+                if (inspections != null) {
+                    inspections[monkey]++;
+                }
+
+                worry = switch (operations[monkey]) {
+                    case ADD -> worry + operands[monkey];
+                    case MULTIPLY -> worry * operands[monkey];
+                    case SQUARE -> worry * worry;
+                    default -> throw new IllegalStateException("Unknown operation " + operations[monkey]);
+                };
+                worry = (relief ? worry / 3 : worry) % modulus;
+
+                var target = worry % divisors[monkey] == 0 ? throwIfTrue[monkey] : throwIfFalse[monkey];
+                if (target <= monkey) {
+                    item.monkey = target;
+                    item.worry = worry;
+                    return;
+                }
+                monkey = target;
+            }
         }
 
-        public long getNumberOfInspections() {
-            return numberOfInspections;
-        }
+        static MonkeySimulator of(String[] monkeyStrings) {
+            var count = monkeyStrings.length;
+            var operations = new int[count];
+            var operands = new long[count];
+            var divisors = new long[count];
+            var throwIfTrue = new int[count];
+            var throwIfFalse = new int[count];
+            var itemMonkeys = IntStream.builder();
+            var itemWorries = new long[16];
+            var items = 0;
+
+            for (var monkey = 0; monkey < count; monkey++) {
+                var parts = monkeyStrings[monkey].split("\n");
+                for (var item : parts[1].substring(18).split(", ")) {
+                    if (items == itemWorries.length) {
+                        itemWorries = Arrays.copyOf(itemWorries, items * 2);
+                    }
+                    itemWorries[items++] = parseLong(item.trim());
+                    itemMonkeys.add(monkey);
+                }
+
+                var operation = parts[2].substring(19).trim().split(" ");
+                if (!"old".equals(operation[0])) {
+                    throw new IllegalArgumentException("Cannot understand " + parts[2]);
+                }
+                if ("old".equals(operation[2])) {
+                    operations[monkey] = switch (operation[1]) {
+                        case "+" -> MULTIPLY;
+                        case "*" -> SQUARE;
+                        default -> throw new IllegalArgumentException("Cannot understand " + operation[1]);
+                    };
+                    // doubling is multiplying by two
+                    operands[monkey] = 2;
+                } else {
+                    operations[monkey] = switch (operation[1]) {
+                        case "+" -> ADD;
+                        case "*" -> MULTIPLY;
+                        default -> throw new IllegalArgumentException("Cannot understand " + operation[1]);
+                    };
+                    operands[monkey] = parseLong(operation[2]);
+                }
+
+                divisors[monkey] = parseInt(parts[3].substring(21).trim());
+                throwIfTrue[monkey] = parseInt(parts[4].substring(29).trim());
+                throwIfFalse[monkey] = parseInt(parts[5].substring(30).trim());
+            }
 
-        public Resolution getResolution() {
-            return resolution;
+            return new MonkeySimulator(
+                    operations,
+                    operands,
+                    divisors,
+                    throwIfTrue,
+                    throwIfFalse,
+                    itemMonkeys.build().toArray(),
+                    Arrays.copyOf(itemWorries, items));
         }
+    }
 
-        static Monkey of(String monkeyString, Function<Long, Long> worryReducer) {
-            var parts = monkeyString.split("\n");
-            var monkey = new Monkey();
-
-            monkey.worryReducer = worryReducer;
-            monkey.items = new ArrayList<>(Stream.of(parts[1].substring(18).split(", "))
-                    .map(String::trim)
-                    .map(Long::parseLong)
-                    .toList());
-
-            var operation = parts[2].substring(19).split(" ");
-            monkey.operation = value -> {
-                var left = "old".equals(operation[0]) ? value : parseLong(operation[0]);
-                var right = "old".equals(operation[2]) ? value : parseLong(operation[2]);
-
-                return switch (operation[1]) {
-                    case "+" -> left + right;
-                    case "-" -> left - right;
-                    case "*" -> left * right;
-                    default -> throw new IllegalArgumentException("Cannot understand " + operation[1]);
-                };
-            };
-
-            var division = parseInt(parts[3].substring(21));
-            var trueMonkey = parseInt(parts[4].substring(29));
-            var falseMonkey = parseInt(parts[5].substring(30));
-            monkey.resolution = new Resolution(division, trueMonkey, falseMonkey);
+    private static final class Item {
+        private int monkey;
+        private long worry;
 
-            return monkey;
+        private Item(int monkey, long worry) {
+            this.monkey = monkey;
+            this.worry = worry;
         }
     }
 }
@@ -2,137 +2,74 @@ package com.github.gjong.advent.years.y2022;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.algo.PathFinding;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.grid.CharGrid;
 
-import java.util.*;
-import java.util.function.BiPredicate;
+import java.util.stream.IntStream;
 
 @Day(day = 12, year = 2022, name = "Hill Climbing Algorithm")
 public class Day12 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private CharGrid heights;
+    private int start;
+    private int end;
+
     public Day12(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
     @Override
-    public void part1() {
-        Point start = null, end = null;
-        var input = inputLoader.splitOnNewLine().toList();
-        var dijkstra = new Dijkstra<>(this::visitAllowed);
-        for (var row = 0; row < input.size(); row++) {
-            if (input.get(row).isBlank()) {
-                continue;
-            }
-            var line = input.get(row);
-            for (var column = 0; column < line.length(); column++) {
-                var character = line.charAt(column);
-                var location = new Point(column, row);
-                if (character == 'S') {
-                    start = location;
-                    character = 'a';
-                }
-                if (character == 'E') {
-                    end = location;
-                    character = 'z';
+    public void readInput() {
+        heights = inputLoader.charGrid();
+        for (var y = 0; y < heights.rows(); y++) {
+            var row = heights.row(y);
+            for (var x = 0; x < row.length; x++) {
+                if (row[x] == 'S') {
+                    start = y * heights.cols() + x;
+                    row[x] = 'a';
+                } else if (row[x] == 'E') {
+                    end = y * heights.cols() + x;
+                    row[x] = 'z';
                 }
-
-                dijkstra.addLocation(location, character);
             }
         }
+    }
 
-        validator.part1(dijkstra.resolve(start, end));
+    @Override
+    public void part1() {
+        validator.part1(climb(start));
     }
 
     @Override
     public void part2() {
-        var input = inputLoader.splitOnNewLine().toList();
-
-        List<Point> potentialStart = new ArrayList<>();
-        Point end = null;
-
-        var dijkstra = new Dijkstra<>(this::visitAllowed);
-        for (var row = 0; row < input.size(); row++) {
-            if (input.get(row).isBlank()) {
-                continue;
-            }
-
-            var line = input.get(row);
-            for (var column = 0; column < line.length(); column++) {
-                var character = line.charAt(column);
-                var location = new Point(column, row);
-                if (character == 'S' || character == 'a') {
-                    potentialStart.add(location);
-                    character = 'a';
-                }
-                if (character == 'E') {
-                    end = location;
-                    character = 'z';
-                }
-
-                dijkstra.addLocation(location, character);
-            }
-        }
-
-        var finalEnd = end;
-        var result = potentialStart.stream()
-                .mapToInt(start -> dijkstra.resolve(start, finalEnd))
-                .filter(v -> v > 0)
-                .min()
-                .orElse(-1);
-        validator.part2(result);
+        // searching from all lowest points at once yields the distance of the closest one
+        var lowest = IntStream.range(0, heights.rows() * heights.cols())
+                .filter(state -> heights.charAt(state % heights.cols(), state / heights.cols()) == 'a')
+                .toArray();
+        validator.part2(climb(lowest));
     }
 
-    private boolean visitAllowed(Character from, Character to) {
-        return to - from <= 1;
+    private int climb(int... sources) {
+        return PathFinding.over(heights.rows() * heights.cols(), this::neighbours)
+                .from(sources)
+                .until(state -> state == end)
+                .dial(1)
+                .cost();
     }
 
-    class Dijkstra<T> {
-        private final Map<Point, T> grid;
-        private final BiPredicate<T, T> visitAllowed;
-
-        public Dijkstra(BiPredicate<T, T> visitAllowed) {
-            this.grid = new HashMap<>();
-            this.visitAllowed = visitAllowed;
-        }
-
-        public void addLocation(Point location, T value) {
-            grid.put(location, value);
-        }
-
-        public int resolve(Point start, Point end) {
-            Objects.requireNonNull(start, "Start cannot be null.");
-            Objects.requireNonNull(end, "End cannot be null.");
-            assert grid.containsKey(start) && grid.containsKey(end);
-
-            var visited = new HashMap<Point, Integer>();
-            visited.put(start, 0);
-
-            var processing = new PriorityQueue<Point>(Comparator.comparingInt(visited::get));
-            processing.add(start);
-            while (!processing.isEmpty()) {
-                var current = processing.poll();
-                if (current.equals(end)) {
-                    return visited.get(end);
-                }
-
-                for (var neighbour : current.neighbours()) {
-                    var currentVal = grid.get(neighbour);
-                    var visitedVal = visited.get(neighbour);
-                    if (currentVal != null && visitedVal == null) {
-                        if (visitAllowed.test(grid.get(current), currentVal)) {
-                            visited.put(neighbour, visited.get(current) + 1);
-                            processing.add(neighbour);
-                        }
-                    }
-                }
-            }
-
-            return -1;
-        }
+    private void neighbours(int state, PathFinding.Edges edges) {
+        var cols = heights.cols();
+        var x = state % cols;
+        var y = state / cols;
+        var maxHeight = heights.charAt(x, y) + 1;
+        if (x + 1 < cols && heights.charAt(x + 1, y) <= maxHeight) edges.add(state + 1, 1);
+        if (x > 0 && heights.charAt(x - 1, y) <= maxHeight) edges.add(state - 1, 1);
+        if (y + 1 < heights.rows() && heights.charAt(x, y + 1) <= maxHeight) edges.add(state + cols, 1);
+        if (y > 0 && heights.charAt(x, y - 1) <= maxHeight) edges.add(state - cols, 1);
     }
 }
@@ -5,171 +5,181 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import static java.lang.Integer.parseInt;
+import java.util.stream.IntStream;
 
 @Day(day = 13, year = 2022, name = "Distress Signal")
 public class Day13 implements DaySolver {
+    private static final String DIVIDER_2 = "[[2]]";
+    private static final String DIVIDER_6 = "[[6]]";
+
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private List<CharSequence> packets;
+
     public Day13(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
     @Override
-    public void part1() {
-        var pairIdx = 1;
-        DataPacket leftPacket = null, rightPacket = null;
-
-        var result = 0;
-        var input = inputLoader.scanner();
-        while (input.hasNextLine()) {
-            var line = input.nextLine();
-            if (line.isEmpty()) {
-                // compare the packets
-                if (leftPacket.compareTo(rightPacket) < 0) {
-                    result += pairIdx;
-                }
+    public void readInput() {
+        packets = inputLoader.parsed("packets", loader -> loader.lines()
+                .filter(line -> !line.isEmpty())
+                .toList());
+    }
 
-                leftPacket = null;
-                rightPacket = null;
-                pairIdx++;
-            } else {
-                if (leftPacket == null) {
-                    leftPacket = DataPacket.of(line);
-                } else {
-                    rightPacket = DataPacket.of(line);
-                }
-            }
-        }
+    @Override
+    public void part1() {
+        var result = IntStream.range(0, packets.size() / 2)
+                .filter(pair -> PacketOrder.compare(packets.get(pair * 2), packets.get(pair * 2 + 1)) < 0)
+                .map(pair -> pair + 1)
+                .sum();
 
         validator.part1(result);
     }
 
     @Override
     public void part2() {
-        var smallerDiv2 = 1;
-        var smallerDiv6 = 2; // starts at 2 because [[2]] is also in the list
-
-        var dataPacketDiv2 = DataPacket.of("[[2]]");
-        var dataPacketDiv6 = DataPacket.of("[[6]]");
-        var input = inputLoader.scanner();
-        while (input.hasNextLine()) {
-            var line = input.nextLine();
-            if (line.isEmpty()) {
-                continue;
-            }
-
-            var packet = DataPacket.of(line);
-            if (packet.compareTo(dataPacketDiv2) < 0) smallerDiv2++;
-            if (packet.compareTo(dataPacketDiv6) < 0) smallerDiv6++;
-        }
+        // the [[6]] divider also comes after the [[2]] divider
+        var smallerDiv2 = PacketOrder.rank(packets, DIVIDER_2);
+        var smallerDiv6 = PacketOrder.rank(packets, DIVIDER_6) + 1;
 
         validator.part2((long) smallerDiv2 * smallerDiv6);
     }
 
-    interface Packet extends Comparable<Packet> {
-    }
-
-    static class DataPacket implements Packet {
+    /**
+     * Orders packets directly on their text, without parsing them into lists first. A cursor walks each packet
+     * token by token. When an integer meets a list, the integer is promoted by letting the cursor report the
+     * closing brackets of the virtual list right after the integer.
+     */
+    static final class PacketOrder {
+        static final Comparator<CharSequence> ORDER = PacketOrder::compare;
 
-        private record SingleValue(int value) implements Packet {
-            @Override
-            public int compareTo(Packet o) {
-                if (o instanceof DataPacket) {
-                    return new DataPacket(List.of(this)).compareTo(o);
-                }
-                if (o instanceof SingleValue casted) {
-                    return Integer.compare(value, casted.value);
-                }
-
-                return -1;
-            }
+        private static final int OPEN = -1;
+        private static final int CLOSE = -2;
 
-            @Override
-            public String toString() {
-                return String.valueOf(value);
-            }
+        private PacketOrder() {
+        }
 
-            static SingleValue of(char startNumber, List<Character> characters) {
-                var number = String.valueOf(startNumber);
-                if (!characters.isEmpty() && Character.isDigit(characters.getFirst())) {
-                    number += characters.removeFirst();
+        static int compare(CharSequence left, CharSequence right) {
+            var leftCursor = new Cursor(left);
+            var rightCursor = new Cursor(right);
+            while (leftCursor.hasNext() && rightCursor.hasNext()) {
+                var leftToken = leftCursor.peek();
+                var rightToken = rightCursor.peek();
+                if (leftToken == rightToken) {
+                    leftCursor.next();
+                    rightCursor.next();
+                } else if (leftToken == CLOSE) {
+                    return -1;
+                } else if (rightToken == CLOSE) {
+                    return 1;
+                } else if (leftToken >= 0 && rightToken >= 0) {
+                    return Integer.compare(leftToken, rightToken);
+                } else if (leftToken == OPEN) {
+                    rightCursor.promote();
+                    leftCursor.next();
+                } else {
+                    leftCursor.promote();
+                    rightCursor.next();
                 }
-                return new SingleValue(parseInt(number));
             }
+
+            return Boolean.compare(leftCursor.hasNext(), rightCursor.hasNext());
         }
 
-        private final List<Packet> packets;
+        /**
+         * The position the packet would get in the sorted packets, starting at one.
+         */
+        static int rank(List<? extends CharSequence> packets, CharSequence packet) {
+            var smaller = packets.parallelStream()
+                    .filter(other -> compare(other, packet) < 0)
+                    .count();
+            return Math.toIntExact(smaller) + 1;
+        }
 
-        private DataPacket(List<Packet> packets) {
-            this.packets = packets;
+        /**
+         * Sort the packets, spreading the work over all cores for larger inputs.
+         */
+        static CharSequence[] sorted(List<? extends CharSequence> packets) {
+            var sorted = packets.toArray(CharSequence[]::new);
+            Arrays.parallelSort(sorted, ORDER);
+            return sorted;
         }
 
-        @Override
-        public int compareTo(Packet other) {
-            if (other instanceof SingleValue) {
-                return compareTo(new DataPacket(List.of(other)));
+        private static final class Cursor {
+            private final CharSequence packet;
+            private int position;
+            private int promoted;
+            private int pendingCloses;
+
+            private Cursor(CharSequence packet) {
+                this.packet = packet;
+            }
+
+            boolean hasNext() {
+                skipSeparators();
+                return pendingCloses > 0 || position < packet.length();
             }
 
-            if (other instanceof DataPacket casted) {
-                for (var idx = 0; idx < packets.size(); idx++) {
-                    if (idx >= casted.packets.size()) {
-                        return 1;
-                    }
-
-                    var compared = packets.get(idx).compareTo(casted.packets.get(idx));
-                    if (compared == 0) {
-                        continue;
-                    }
-                    return compared;
+            /**
+             * The current token, either {@link #OPEN}, {@link #CLOSE} or a non-negative integer.
+             */
+            int peek() {
+                skipSeparators();
+                if (pendingCloses > 0) {
+                    return CLOSE;
                 }
 
-                if (packets.size() < casted.packets.size()) {
-                    return -1;
+                var character = packet.charAt(position);
+                if (character == '[') {
+                    return OPEN;
+                } else if (character == ']') {
+                    return CLOSE;
                 }
+
+                var value = 0;
+                for (var index = position; index < packet.length() && Character.isDigit(packet.charAt(index)); index++) {
+                    value = value * 10 + packet.charAt(index) - '0';
+                }
+                return value;
             }
 
-            return 0;
-        }
+            void next() {
+                if (pendingCloses > 0) {
+                    pendingCloses--;
+                    return;
+                }
 
-        @Override
-        public String toString() {
-            return "[%s]".formatted(
-                    packets.stream()
-                            .map(Packet::toString)
-                            .collect(Collectors.joining(","))
-            );
-        }
+                var character = packet.charAt(position);
+                if (character == '[' || character == ']') {
+                    position++;
+                    return;
+                }
 
-        public static DataPacket of(String line) {
-            var dataPacket = line.substring(1, line.length() - 1);
-            List<Character> characters = new ArrayList<>(dataPacket.length());
-            for (char character : dataPacket.toCharArray())
-                characters.add(character);
+                while (position < packet.length() && Character.isDigit(packet.charAt(position))) {
+                    position++;
+                }
+                pendingCloses = promoted;
+                promoted = 0;
+            }
 
-            return (DataPacket) parse(characters);
-        }
+            /**
+             * Wrap the integer at the cursor in a virtual list, the opening bracket is consumed right away.
+             */
+            void promote() {
+                promoted++;
+            }
 
-        private static Packet parse(List<Character> characters) {
-            var dataPacket = new DataPacket(new ArrayList<>());
-            while (!characters.isEmpty()) {
-                var nextChar = characters.removeFirst();
-                if (nextChar == '[') {
-                    dataPacket.packets.add(DataPacket.parse(characters));
-                } else if (nextChar == ']') {
-                    return dataPacket;
-                } else if (nextChar != ',') {
-                    dataPacket.packets.add(SingleValue.of(nextChar, characters));
+            private void skipSeparators() {
+                while (pendingCloses == 0 && position < packet.length() && packet.charAt(position) == ',') {
+                    position++;
                 }
             }
-
-            return dataPacket;
         }
     }
 }
@@ -5,11 +5,10 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.geo.PointSet;
 import com.github.gjong.advent.geo.Vector;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import static java.lang.Integer.parseInt;
 
@@ -21,16 +20,25 @@ public class Day14 implements DaySolver {
     private static final Point DROP_POINT = Point.of(500, 0);
 
     int lowestY;
+    private Cave cave;
+
+    private record Cave(PointSet rocks, int lowestY) {}
 
     public Day14(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
+    @Override
+    public void readInput() {
+        cave = inputLoader.parsed("cave", loader -> parseCave());
+        lowestY = cave.lowestY();
+    }
+
     @Override
     public void part1() {
-        lowestY = 0;
-        var blockedPoints = parse();
+        // the sand fills the copy, the parsed cave is shared between both parts
+        var blockedPoints = new PointSet(cave.rocks());
 
         var sandMover = new SandMover();
         var droppedSand = 0;
@@ -51,14 +59,13 @@ public class Day14 implements DaySolver {
 
     @Override
     public void part2() {
-        lowestY = 0;
-        var blockedPoints = parse();
+        var blockedPoints = new PointSet(cave.rocks());
         int bottom = lowestY + 2;
 
         // bottom needs to be no wider then the triangle from drop point to bottom + 1
         var width = (int) Math.ceil(bottom * Math.tan(45)) + 1;
         for (var x = 500 - width; x < 500 + width; x++) {
-            blockedPoints.add(Point.of(x, bottom));
+            blockedPoints.add(x, bottom);
         }
 
         var sandMover = new SandMover();
@@ -76,8 +83,9 @@ public class Day14 implements DaySolver {
         validator.part2(droppedSand);
     }
 
-    private Set<Point> parse() {
-        var blockedPoints = new HashSet<Point>();
+    private Cave parseCave() {
+        var lowestY = 0;
+        var blockedPoints = new PointSet();
         var scanner = inputLoader.scanner();
         while (scanner.hasNextLine()) {
             var points = scanner.nextLine().split(" -> ");
@@ -92,34 +100,35 @@ public class Day14 implements DaySolver {
                 }
 
                 if (lastPoint != null) {
-                    blockedPoints.addAll(new Vector(lastPoint, currentPoint).pointsInVector());
+                    new Vector(lastPoint, currentPoint).pointsInVector().forEach(blockedPoints::add);
                 }
                 lastPoint = currentPoint;
             }
         }
-        return blockedPoints;
+        return new Cave(blockedPoints, lowestY);
     }
 
     class SandMover {
         private static final Point DROP_POINT = Point.of(500, 0);
         private static final List<Point> TRANSLATIONS = List.of(Point.of(0, 1), Point.of(-1, 1), Point.of(1, 1));
 
-        public Point drop(int lowestY, Set<Point> blockedPoints) {
-            var sandPos = DROP_POINT;
+        public Point drop(int lowestY, PointSet blockedPoints) {
+            var x = DROP_POINT.x();
+            var y = DROP_POINT.y();
 
-            while (sandPos.y() <= lowestY) {
+            while (y <= lowestY) {
                 var changed = false;
                 for (var translation : TRANSLATIONS) {
-                    var translated = sandPos.translate(translation);
-                    if (!blockedPoints.contains(translated)) {
-                        sandPos = translated;
+                    if (!blockedPoints.contains(x + translation.x(), y + translation.y())) {
+                        x += translation.x();
+                        y += translation.y();
                         changed = true;
                         break;
                     }
                 }
 
                 if (!changed) {
-                    return sandPos;
+                    return Point.of(x, y);
                 }
             }
 
@@ -21,6 +21,9 @@ public class Day05 implements DaySolver {
     private final InputLoader inputLoader = new InputLoader(2023, 5);
     private final Validator validator = new Validator(2023, 5);
 
+    private List<String> sections;
+    private List<List<Mutation>> mutationSets;
+
     private record Seed(long seed, long additional, Seed original) {
         private Seed {
             if (additional < 0) {
@@ -91,14 +94,15 @@ public class Day05 implements DaySolver {
     }
 
     @Override
-    public void part1() {
-        var sections = inputLoader.string()
-                .split("\\n\\n");
-
-        var seeds = parseSeeds(sections[0]);
-        for (var mutationSet = 1; mutationSet < sections.length; mutationSet++) {
-            var mutations = parseMutations(sections[mutationSet]);
+    public void readInput() {
+        sections = parseSections();
+        mutationSets = parseMutationSets();
+    }
 
+    @Override
+    public void part1() {
+        var seeds = parseSeeds(sections.getFirst());
+        for (var mutations : mutationSets) {
             seeds = seeds.stream()
                     .flatMap(s -> mutate(s, mutations).stream())
                     .toList();
@@ -114,13 +118,8 @@ public class Day05 implements DaySolver {
 
     @Override
     public void part2() {
-        var sections = inputLoader.string()
-                .split("\\n\\n");
-
-        var seeds = parseUpdated(sections[0]);
-        for (var mutationSet = 1; mutationSet < sections.length; mutationSet++) {
-            var mutations = parseMutations(sections[mutationSet]);
-
+        var seeds = parseUpdated(sections.getFirst());
+        for (var mutations : mutationSets) {
             seeds = mutate(seeds, mutations);
         }
 
@@ -164,6 +163,17 @@ public class Day05 implements DaySolver {
         return List.of(seed);
     }
 
+    private List<String> parseSections() {
+        return inputLoader.parsed("sections", loader -> List.of(loader.string().split("\\n\\n")));
+    }
+
+    private List<List<Mutation>> parseMutationSets() {
+        return inputLoader.parsed("mutations", loader -> parseSections().stream()
+                .skip(1)
+                .map(this::parseMutations)
+                .toList());
+    }
+
     private List<Mutation> parseMutations(String input) {
         var mutationInstruction = input.split("\\n");
 
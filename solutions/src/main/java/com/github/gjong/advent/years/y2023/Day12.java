@@ -2,22 +2,19 @@ package com.github.gjong.advent.years.y2023;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.Memoize;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.jongsoft.lang.API;
 
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
 
 @Day(day = 12, year = 2023, name = "Hot Springs")
 public class Day12 implements DaySolver {
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    private final Map<String, Long> cache = new HashMap<>();
-
     public Day12(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
@@ -54,34 +51,47 @@ public class Day12 implements DaySolver {
     }
 
     private long compute(String springs, int[] expectedSprings) {
-        cache.clear();
-        return compute(springs, expectedSprings, 0, 0);
+        return new Row(springs, expectedSprings).arrangements(0, 0);
     }
 
-    private long compute(String springs, int[] expectedSprings, int charIdx, int group) {
-        if (group == expectedSprings.length) {
-            return !springs.substring(charIdx).contains("#") ? 1 : 0;
-        }
-
-        var expected = expectedSprings[group];
-        if (springs.length() - charIdx < expected + 1) {
-            return 0;
+    /**
+     * A single row of springs, every row has its own memo table so rows can be solved independently.
+     */
+    static class Row {
+        private final String springs;
+        private final int[] expectedSprings;
+        private final Day12RowComputeArrangementsMemo memo;
+
+        Row(String springs, int[] expectedSprings) {
+            this.springs = springs;
+            this.expectedSprings = expectedSprings;
+            this.memo = new Day12RowComputeArrangementsMemo(springs.length() + 1, expectedSprings.length + 1);
         }
 
-        var key = charIdx + "," + group;
-        if (cache.containsKey(key)) {
-            return cache.get(key);
+        long arrangements(int charIdx, int group) {
+            return memo.get(charIdx, group, this::computeArrangements);
         }
 
-        var res = 0L;
-        if (springs.charAt(charIdx) != '#') {
-            res += compute(springs, expectedSprings, charIdx + 1, group);
+        @Memoize
+        long computeArrangements(int charIdx, int group) {
+            if (group == expectedSprings.length) {
+                return springs.indexOf('#', charIdx) < 0 ? 1 : 0;
+            }
+
+            var expected = expectedSprings[group];
+            if (springs.length() - charIdx < expected + 1) {
+                return 0;
+            }
+
+            var res = 0L;
+            if (springs.charAt(charIdx) != '#') {
+                res += arrangements(charIdx + 1, group);
+            }
+            var operational = springs.indexOf('.', charIdx);
+            if ((operational < 0 || operational >= charIdx + expected) && springs.charAt(charIdx + expected) != '#') {
+                res += arrangements(charIdx + expected + 1, group + 1);
+            }
+            return res;
         }
-        if (!springs.substring(charIdx, charIdx + expected).contains(".") && springs.charAt(charIdx + expected) != '#') {
-            res += compute(springs, expectedSprings, charIdx + expected + 1, group + 1);
-        }
-
-        cache.put(key, res);
-        return res;
     }
 }
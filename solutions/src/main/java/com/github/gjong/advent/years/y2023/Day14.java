@@ -2,15 +2,11 @@ package com.github.gjong.advent.years.y2023;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.grid.CharGrid;
+import com.github.gjong.advent.algo.CycleDetection;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Bounds;
-import com.github.gjong.advent.geo.Point;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.Arrays;
 
 @Day(year = 2023, day = 14, name = "Parabolic Reflector Dish")
 public class Day14 implements DaySolver {
@@ -18,115 +14,200 @@ public class Day14 implements DaySolver {
     private final Validator validator;
     private static final int MAX_RUNS = 1000000000;
 
+    private Platform platform;
+
     public Day14(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
-    static class World extends HashMap<Point, Character> {
+    /**
+     * The fixed part of the platform. The cube rocks split every column and row into segments, a tilt moves all
+     * round rocks of a segment to one of its ends. Segments are stored as pairs of a start and end index, exclusive,
+     * in column-major order for columns and in row-major order for rows.
+     */
+    private record Platform(int rows, int cols, int[] columnSegments, int[] rowSegments, long[] rounds) {}
+
+    /**
+     * The round rocks, stored as a bitboard. Between tilts the bitboard alternates between column-major order, used
+     * when tilting north or south, and row-major order, used when tilting west or east. A tilt reads one order and
+     * writes the other, so every tilt is a single pass over the segments.
+     */
+    private static class RockField {
+        private final Platform platform;
+        private long[] columnMajor;
+        private long[] rowMajor;
+
+        RockField(Platform platform) {
+            this.platform = platform;
+            this.columnMajor = platform.rounds().clone();
+            this.rowMajor = new long[columnMajor.length];
+        }
 
-        private final Bounds bounds;
+        void north() {
+            tilt(columnMajor, rowMajor, platform.columnSegments(), true, platform.rows(), platform.cols());
+            Arrays.fill(columnMajor, 0);
+        }
 
-        public World(World other) {
-            super(other);
-            bounds = other.bounds;
+        void west() {
+            tilt(rowMajor, columnMajor, platform.rowSegments(), true, platform.cols(), platform.rows());
+            Arrays.fill(rowMajor, 0);
         }
 
-        World(int cols, int rows) {
-            bounds = new Bounds(0, 0, cols, rows);
+        void south() {
+            tilt(columnMajor, rowMajor, platform.columnSegments(), false, platform.rows(), platform.cols());
+            Arrays.fill(columnMajor, 0);
         }
 
-        long weight() {
-            return this.entrySet().stream()
-                    .filter(point -> point.getValue() == 'O')
-                    .map(Map.Entry::getKey)
-                    .mapToLong(p -> bounds.height() - p.y())
-                    .sum();
+        void east() {
+            tilt(rowMajor, columnMajor, platform.rowSegments(), false, platform.cols(), platform.rows());
+            Arrays.fill(rowMajor, 0);
         }
 
-        void moveSand(Point direction) {
-            var moved = 0;
-            do {
-                moved = 0;
-                for (int y = -direction.y(); y < bounds.height() - direction.y(); ++y) {
-                    for (int x = -direction.x(); x < bounds.width() - direction.x(); ++x) {
-                        Point p = new Point(x, y);
-                        if (getOrDefault(p, '.') == 'O') {
-                            var translated = p.translate(direction);
-                            if (getOrDefault(translated, '.') == '.') {
-                                remove(p);
-                                put(translated, 'O');
-                                ++moved;
-                            }
-                        }
-                    }
+        void spin() {
+            north();
+            west();
+            south();
+            east();
+        }
+
+        /**
+         * The load on the north support beams, only valid while the rocks are in column-major order.
+         */
+        long northLoad() {
+            var load = 0L;
+            var rows = platform.rows();
+            for (var word = 0; word < columnMajor.length; word++) {
+                for (var bits = columnMajor[word]; bits != 0; bits &= bits - 1) {
+                    var cell = word * 64 + Long.numberOfTrailingZeros(bits);
+                    load += rows - cell % rows;
                 }
-            } while (moved > 0);
+            }
+            return load;
         }
 
-        @Override
-        public String toString() {
-            var grid = new CharGrid((".".repeat(bounds.width()) + "\n").repeat(bounds.height()));
-            this.forEach((point, c) -> grid.set(point.x(), point.y(), c));
-            return grid.print();
+        /**
+         * The load on the north support beams, only valid while the rocks are in row-major order.
+         */
+        long northLoadRowMajor() {
+            var load = 0L;
+            var rows = platform.rows();
+            var cols = platform.cols();
+            for (var word = 0; word < rowMajor.length; word++) {
+                for (var bits = rowMajor[word]; bits != 0; bits &= bits - 1) {
+                    var cell = word * 64 + Long.numberOfTrailingZeros(bits);
+                    load += rows - cell / cols;
+                }
+            }
+            return load;
         }
-    }
 
-    @Override
-    public void part1() {
-        var world = parseWorld(inputLoader.string());
-        world.moveSand(Point.of(0, -1));  // north
-        validator.part1(world.weight());
-    }
+        long fingerprint() {
+            var hash = 0L;
+            for (var word : columnMajor) {
+                hash = (hash ^ word) * 0x9E3779B97F4A7C15L;
+                hash ^= hash >>> 29;
+            }
+            return hash;
+        }
 
-    @Override
-    public void part2() {
-        var world = parseWorld(inputLoader.string());
-
-        var answer = 0L;
-        var cache = new HashMap<World, Integer>();
-        for (var runs = 0; runs < MAX_RUNS; runs++) {
-            var directions = List.of(
-                    Point.of(0, -1),  // north
-                    Point.of(-1, 0),  // west
-                    Point.of(0, 1),   // south
-                    Point.of(1, 0));  // east
-
-            for (var direction : directions) {
-                world.moveSand(direction);
+        /**
+         * Move all rocks of every segment to the start or end of the segment, writing them transposed into the target.
+         *
+         * @param lineLength the length of the lines in the source order
+         * @param lines      the number of lines in the source order
+         */
+        private static void tilt(long[] source, long[] target, int[] segments, boolean towardsStart, int lineLength, int lines) {
+            for (var idx = 0; idx < segments.length; idx += 2) {
+                var start = segments[idx];
+                var end = segments[idx + 1];
+                var rocks = countRange(source, start, end);
+                var first = towardsStart ? start : end - rocks;
+                for (var cell = first; cell < first + rocks; cell++) {
+                    // transpose, the position within the line becomes the line in the target order
+                    var transposed = (cell % lineLength) * lines + cell / lineLength;
+                    target[transposed >>> 6] |= 1L << transposed;
+                }
             }
+        }
 
-            // manipulate the cache
-            if (cache.containsKey(world)) {
-                var lastSeen = cache.get(world);
-                var endOfCycle = lastSeen + (MAX_RUNS - runs - 1)
-                        % (runs - lastSeen);
-
-                answer = cache.entrySet().stream()
-                        .filter(e -> e.getValue() == endOfCycle)
-                        .mapToLong(e -> e.getKey().weight())
-                        .findFirst()
-                        .orElseThrow();
-                break;
+        private static int countRange(long[] bits, int from, int to) {
+            var firstWord = from >>> 6;
+            var lastWord = (to - 1) >>> 6;
+            var startMask = -1L << from;
+            var endMask = -1L >>> -to;
+            if (firstWord == lastWord) {
+                return Long.bitCount(bits[firstWord] & startMask & endMask);
             }
 
-            cache.put(new World(world), runs);
+            var count = Long.bitCount(bits[firstWord] & startMask);
+            for (var word = firstWord + 1; word < lastWord; word++) {
+                count += Long.bitCount(bits[word]);
+            }
+            return count + Long.bitCount(bits[lastWord] & endMask);
         }
-
-        validator.part2(answer);
     }
 
-    private World parseWorld(String input) {
-        var grid = new CharGrid(input);
-        var world = new World(grid.cols(), grid.rows());
-        for (var x = 0; x < grid.cols(); x++) {
-            for (var y = 0; y < grid.rows(); y++) {
-                var c = grid.at(x, y);
-                if (c == '#' || c == 'O') {
-                    world.put(new Point(x, y), c);
+    @Override
+    public void readInput() {
+        var grid = inputLoader.charGrid();
+        var rows = grid.rows();
+        var cols = grid.cols();
+
+        var rounds = new long[(rows * cols + 63) >>> 6];
+        var columnSegments = new int[rows * cols * 2];
+        var columnSegmentCount = 0;
+        for (var x = 0; x < cols; x++) {
+            var start = x * rows;
+            for (var y = 0; y <= rows; y++) {
+                var cell = x * rows + y;
+                if (y == rows || grid.charAt(x, y) == '#') {
+                    if (cell > start) {
+                        columnSegments[columnSegmentCount++] = start;
+                        columnSegments[columnSegmentCount++] = cell;
+                    }
+                    start = cell + 1;
+                } else if (grid.charAt(x, y) == 'O') {
+                    rounds[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+
+        var rowSegments = new int[rows * cols * 2];
+        var rowSegmentCount = 0;
+        for (var y = 0; y < rows; y++) {
+            var start = y * cols;
+            for (var x = 0; x <= cols; x++) {
+                var cell = y * cols + x;
+                if (x == cols || grid.charAt(x, y) == '#') {
+                    if (cell > start) {
+                        rowSegments[rowSegmentCount++] = start;
+                        rowSegments[rowSegmentCount++] = cell;
+                    }
+                    start = cell + 1;
                 }
             }
         }
-        return world;
+
+        platform = new Platform(
+                rows,
+                cols,
+                Arrays.copyOf(columnSegments, columnSegmentCount),
+                Arrays.copyOf(rowSegments, rowSegmentCount),
+                rounds);
+    }
+
+    @Override
+    public void part1() {
+        var field = new RockField(platform);
+        field.north();
+        validator.part1(field.northLoadRowMajor());
+    }
+
+    @Override
+    public void part2() {
+        var cycle = CycleDetection.brent(() -> new RockField(platform), RockField::spin, RockField::fingerprint);
+        var field = CycleDetection.replay(cycle, MAX_RUNS, () -> new RockField(platform), RockField::spin);
+        validator.part2(field.northLoad());
     }
 }
@@ -72,18 +72,16 @@ public class Day16 implements DaySolver {
     }
 
     private long solve(Movement start, CharGrid grid) {
-        var bounds = grid.bounds();
-
         var queue = new Stack<Movement>();
         queue.add(start);
 
         var visited = new HashSet<Movement>();
         while (!queue.isEmpty()) {
             var move = queue.pop();
-            for (var directions : getDirections(grid.at(move.position.x(), move.position.y()), move.direction)) {
+            for (var directions : getDirections(grid.charAt(move.position), move.direction)) {
                 var nextPoint = move.position.translate(directions.vector);
                 var nextState = new Movement(nextPoint, directions);
-                if (bounds.inBounds(nextPoint) && !visited.contains(nextState)) {
+                if (grid.inBounds(nextPoint) && !visited.contains(nextState)) {
                     visited.add(nextState);
                     queue.add(nextState);
                 }
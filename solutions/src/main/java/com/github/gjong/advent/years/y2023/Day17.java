@@ -2,72 +2,28 @@ package com.github.gjong.advent.years.y2023;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.grid.CharGrid;
+import com.github.gjong.advent.algo.PathFinding;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Point;
-
-import java.util.*;
 
 @Day(day = 17, year = 2023, name = "Clumsy Crucible")
 public class Day17 implements DaySolver {
+    private static final int HORIZONTAL = 0;
+    private static final int VERTICAL = 1;
+
     private final InputLoader inputLoader;
     private final Validator validator;
 
+    private byte[][] heatLoss;
+
     public Day17(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
-    record PathCost(Point location, char direction, int cost) implements Comparable<PathCost> {
-        @Override
-        public int compareTo(PathCost o) {
-            return cost - o.cost;
-        }
-
-        public int hashCode() {
-            return Objects.hash(location, direction);
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj instanceof PathCost other) {
-                return location.equals(other.location) && direction == other.direction;
-            }
-            return false;
-        }
-
-        public List<PathCost> nextSteps(CharGrid grid, int minSteps, int maxSteps) {
-            var options = new ArrayList<PathCost>();
-
-            var currentTranslation = Point.directionFromChar(direction);
-            for (char updated : "NSWE".toCharArray()) {
-                var translation = Point.directionFromChar(updated);
-                if (translation.equals(currentTranslation) ||
-                        translation.inverse().equals(currentTranslation)) {
-                    // don't go back the way we came
-                    continue;
-                }
-
-                var updatedCost = cost;
-                var updatedLocation = location;
-                for (int i = 1; i <= maxSteps; ++i) {
-                    updatedLocation = updatedLocation.translate(translation);
-                    if (grid.bounds().inBounds(updatedLocation)) {
-                        updatedCost += grid.at(updatedLocation) - '0';
-
-                        if (i >= minSteps) {
-                            options.add(new PathCost(updatedLocation, updated, updatedCost));
-                        }
-                    } else {
-                        // out of bounds
-                        break;
-                    }
-                }
-            }
-
-            return options;
-        }
+    @Override
+    public void readInput() {
+        heatLoss = inputLoader.digitGrid();
     }
 
     @Override
@@ -80,28 +36,42 @@ public class Day17 implements DaySolver {
         validator.part2(solve(4, 10));
     }
 
+    /**
+     * Every state is a block combined with the axis of the last move. As a crucible must turn after every run of
+     * moves, each edge covers a full run of {@code minSteps} up to {@code maxSteps} blocks along the other axis.
+     */
     private int solve(int minSteps, int maxSteps) {
-        var grid = inputLoader.charGrid();
-        var end = new Point(grid.cols() - 1, grid.rows() - 1);
-
-        var visited = new HashMap<PathCost, Integer>();
-        visited.put(new PathCost(new Point(0, 0), '.', 0), 0);
-
-        var queue = new PriorityQueue<>(visited.keySet());
-        while (!queue.isEmpty()) {
-            var current = queue.poll();
-            if (current.location().equals(end)) {
-                return current.cost();
-            }
-
-            for (var next : current.nextSteps(grid, minSteps,  maxSteps)) {
-                if (next.cost() < visited.getOrDefault(next, Integer.MAX_VALUE)) {
-                    visited.put(next, next.cost());
-                    queue.add(next);
-                }
-            }
-        }
-
-        throw new IllegalStateException("No path found");
+        var rows = heatLoss.length;
+        var cols = heatLoss[0].length;
+        var endBlock = rows * cols - 1;
+
+        return PathFinding.over(rows * cols * 2, (state, edges) -> {
+                    var block = state / 2;
+                    var x = block % cols;
+                    var y = block / cols;
+                    var nextAxis = state % 2 == HORIZONTAL ? VERTICAL : HORIZONTAL;
+                    for (var sign = -1; sign <= 1; sign += 2) {
+                        var dx = nextAxis == HORIZONTAL ? sign : 0;
+                        var dy = nextAxis == VERTICAL ? sign : 0;
+                        var cost = 0;
+                        for (var step = 1; step <= maxSteps; step++) {
+                            var nextX = x + dx * step;
+                            var nextY = y + dy * step;
+                            if (nextX < 0 || nextX >= cols || nextY < 0 || nextY >= rows) {
+                                break;
+                            }
+
+                            cost += heatLoss[nextY][nextX];
+                            if (step >= minSteps) {
+                                edges.add((nextY * cols + nextX) * 2 + nextAxis, cost);
+                            }
+                        }
+                    }
+                })
+                // the crucible may leave the start in either direction
+                .from(HORIZONTAL, VERTICAL)
+                .until(state -> state / 2 == endBlock)
+                .dial(9 * maxSteps)
+                .cost();
     }
 }
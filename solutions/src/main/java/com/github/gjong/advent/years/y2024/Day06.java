@@ -2,28 +2,32 @@ package com.github.gjong.advent.years.y2024;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.LimitRuns;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Bounds;
-import com.github.gjong.advent.geo.Point;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Arrays;
+import java.util.stream.IntStream;
 
 @Day(year = 2024, day = 6, name = "Guard Gallivant")
 public class Day06 implements DaySolver {
+    private static final int UP = 0;
+    private static final int RIGHT = 1;
+    private static final int DOWN = 2;
+    private static final int LEFT = 3;
+    private static final int EXIT = -1;
 
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    private Bounds gridBounds;
-    private final List<Point> blockades = new ArrayList<>();
-    private Point startPoint;
+    private int rows;
+    private int cols;
+    private int start;
+    /**
+     * For every direction and free cell, the cell where the guard stops in front of the next obstacle or
+     * {@link #EXIT} when the guard walks off the map.
+     */
+    private int[][] jumps;
+    private long[] patrolled;
 
     public Day06(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
@@ -32,101 +36,176 @@ public class Day06 implements DaySolver {
 
     @Override
     public void readInput() {
-        var row = 0;
-        var rows = 0;
-        for (var line : inputLoader.string().split("\n")) {
-            if (rows == 0) {
-                rows = line.length();
-                gridBounds = new Bounds(0, 0, rows - 1, line.length() - 1);
-            }
-
-            for (var i = 0; i < line.length(); i++) {
-                switch (line.charAt(i)) {
-                    case '#':
-                        blockades.add(new Point(i, row));
-                        break;
-                    case '^':
-                        startPoint = new Point(i, row);
-                        break;
-                    default:
-                        break;
+        var grid = inputLoader.charGrid();
+        patrolled = null;
+        rows = grid.rows();
+        cols = grid.cols();
+
+        var blocked = new boolean[rows * cols];
+        for (var y = 0; y < rows; y++) {
+            var row = grid.row(y);
+            for (var x = 0; x < cols; x++) {
+                blocked[y * cols + x] = row[x] == '#';
+                if (row[x] == '^') {
+                    start = y * cols + x;
                 }
             }
-            row++;
+        }
+
+        jumps = new int[4][rows * cols];
+        for (var x = 0; x < cols; x++) {
+            buildJumps(blocked, jumps[UP], x, cols, rows);
+            buildJumps(blocked, jumps[DOWN], x + (rows - 1) * cols, -cols, rows);
+        }
+        for (var y = 0; y < rows; y++) {
+            buildJumps(blocked, jumps[LEFT], y * cols, 1, cols);
+            buildJumps(blocked, jumps[RIGHT], y * cols + cols - 1, -1, cols);
         }
     }
 
     @Override
     public void part1() {
-        var currentPos = startPoint;
-        var currentDirection = new Point(0, -1);
-
-        var visited = new HashSet<Point>();
-        while (gridBounds.inBounds(currentPos)) {
-            visited.add(currentPos);
-
-            var updatedPos = currentPos.translate(currentDirection);
-            if (blockades.contains(updatedPos)) {
-                currentDirection = currentDirection.rotateCW();
-            } else {
-                currentPos = updatedPos;
-            }
-        }
+        validator.part1(Arrays.stream(patrol()).map(Long::bitCount).sum());
+    }
 
-        validator.part1(visited.size());
+    @Override
+    public void part2() {
+        // an obstruction can only change the route if the guard would walk into it
+        var patrol = patrol();
+        var candidates = IntStream.range(0, rows * cols)
+                .filter(cell -> cell != start && (patrol[cell >>> 6] & (1L << cell)) != 0)
+                .toArray();
+
+        var loops = IntStream.of(candidates)
+                .parallel()
+                .filter(this::loopsWith)
+                .count();
+
+        validator.part2(loops);
     }
 
-    private int playRound(List<Point> blockades) {
-        var currentPos = startPoint;
-        var currentDirection = new Point(0, -1);
+    /**
+     * All cells the guard visits without any extra obstruction, as a bitset indexed by cell.
+     */
+    private long[] patrol() {
+        if (patrolled != null) {
+            return patrolled;
+        }
 
-        var visited = new HashSet<PointWithDirection>();
-        while (gridBounds.inBounds(currentPos)) {
-            if (visited.contains(new PointWithDirection(currentPos, currentDirection))) {
-                return -1;
+        var visited = new long[(rows * cols + 63) >>> 6];
+        var position = start;
+        var direction = UP;
+        while (true) {
+            var stop = jumps[direction][position];
+            var last = stop == EXIT ? edge(position, direction) : stop;
+            var step = step(direction);
+            for (var cell = position; ; cell += step) {
+                visited[cell >>> 6] |= 1L << cell;
+                if (cell == last) {
+                    break;
+                }
             }
-            visited.add(new PointWithDirection(currentPos, currentDirection));
 
-            var updatedPos = currentPos.translate(currentDirection);
-            if (blockades.contains(updatedPos)) {
-                currentDirection = currentDirection.rotateCW();
-            } else {
-                currentPos = updatedPos;
+            if (stop == EXIT) {
+                break;
             }
+            position = stop;
+            direction = (direction + 1) % 4;
         }
 
-        return visited.size();
+        patrolled = visited;
+        return visited;
     }
 
-    @Override
-    @LimitRuns
-    public void part2() {
-        var counter = new AtomicInteger();
-        try (var executors = Executors.newVirtualThreadPerTaskExecutor()) {
-            for (var x = 0; x < gridBounds.width(); x++) {
-                for (var y = 0; y < gridBounds.height(); y++) {
-                    var point = new Point(x, y);
-                    if (!blockades.contains(point)) {
-                        var updatedBlockades = new ArrayList<>(blockades);
-                        updatedBlockades.add(point);
-
-                        executors.submit(() -> {
-                            if (playRound(updatedBlockades) == -1) {
-                                counter.incrementAndGet();
-                            }
-                        });
-                    }
-                }
+    /**
+     * Walk the guard from stop to stop, with one additional obstruction, until it either leaves the map or reaches
+     * a stop it already turned at in the same direction.
+     */
+    private boolean loopsWith(int obstruction) {
+        var obstructionX = obstruction % cols;
+        var obstructionY = obstruction / cols;
+        var seen = new long[(rows * cols * 4 + 63) >>> 6];
+
+        var position = start;
+        var direction = UP;
+        while (true) {
+            var stop = jumps[direction][position];
+            if (blocksWalk(position, stop, direction, obstructionX, obstructionY)) {
+                stop = obstruction - step(direction);
+            }
+            if (stop == EXIT) {
+                return false;
+            }
+
+            var state = stop * 4 + direction;
+            if ((seen[state >>> 6] & (1L << state)) != 0) {
+                return true;
             }
+            seen[state >>> 6] |= 1L << state;
 
-            executors.shutdown();
-            executors.awaitTermination(1, TimeUnit.MINUTES);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
+            position = stop;
+            direction = (direction + 1) % 4;
         }
+    }
+
+    /**
+     * Whether the obstruction lies in front of the guard, before the stop it would otherwise reach.
+     */
+    private boolean blocksWalk(int position, int stop, int direction, int obstructionX, int obstructionY) {
+        var x = position % cols;
+        var y = position / cols;
+        return switch (direction) {
+            case UP -> obstructionX == x && obstructionY < y && (stop == EXIT || obstructionY >= stop / cols);
+            case DOWN -> obstructionX == x && obstructionY > y && (stop == EXIT || obstructionY <= stop / cols);
+            case LEFT -> obstructionY == y && obstructionX < x && (stop == EXIT || obstructionX >= stop % cols);
+            case RIGHT -> obstructionY == y && obstructionX > x && (stop == EXIT || obstructionX <= stop % cols);
+            default -> throw new IllegalArgumentException("Unknown direction " + direction);
+        };
+    }
 
-        validator.part2(counter.get());
+    private int step(int direction) {
+        return switch (direction) {
+            case UP -> -cols;
+            case DOWN -> cols;
+            case LEFT -> -1;
+            case RIGHT -> 1;
+            default -> throw new IllegalArgumentException("Unknown direction " + direction);
+        };
     }
 
-    private record PointWithDirection(Point point, Point direction) {}
+    /**
+     * The last cell on the map when walking from the position in the direction.
+     */
+    private int edge(int position, int direction) {
+        return switch (direction) {
+            case UP -> position % cols;
+            case DOWN -> (rows - 1) * cols + position % cols;
+            case LEFT -> position - position % cols;
+            case RIGHT -> position - position % cols + cols - 1;
+            default -> throw new IllegalArgumentException("Unknown direction " + direction);
+        };
+    }
+
+    /**
+     * Fill the jump table of one row or column, walking away from the side the guard moves towards. The first free
+     * cell behind an obstacle is where the guard stops, all cells further along jump to that same cell.
+     */
+    private static void buildJumps(boolean[] blocked, int[] jumps, int first, int step, int length) {
+        var stop = EXIT;
+        var afterObstacle = false;
+        var cell = first;
+        for (var idx = 0; idx < length; idx++, cell += step) {
+            if (blocked[cell]) {
+                jumps[cell] = EXIT;
+                afterObstacle = true;
+                continue;
+            }
+
+            if (afterObstacle) {
+                stop = cell;
+                afterObstacle = false;
+            }
+            jumps[cell] = stop;
+        }
+    }
 }
@@ -4,168 +4,144 @@ import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import org.slf4j.Logger;
-
-import java.util.ArrayList;
-import java.util.List;
 
 @Day(year = 2024, day = 9, name = "Disk Fragmenter")
 public class Day09 implements DaySolver {
 
-    private final Logger log = org.slf4j.LoggerFactory.getLogger(Day09.class);
-
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    // Any segment that fits on disk
-    sealed interface DiskUsage permits Spacing, FileSegment {
-        int size();
-    }
-
-    // Empty space on disk
-    final class Spacing implements DiskUsage {
-        private int size;
-        public Spacing(int size) {
-            this.size = size;
-        }
-
-        public int size() {
-            return size;
-        }
-
-        public void shrink(int size) {
-            this.size -= size;
-        }
-
-        @Override
-        public String toString() {
-            return ".".repeat(size);
-        }
-    }
-
-    // File on disk
-    record FileSegment(int size, int fileNumber) implements DiskUsage {
-        public FileSegment reduceSize(int size) {
-            return new FileSegment(this.size - size, this.fileNumber);
-        }
-
-        @Override
-        public String toString() {
-            return (fileNumber + "").repeat(size);
-        }
-    }
+    // file n is followed by gap n, the last file may not have a gap
+    private int[] fileStart;
+    private int[] fileSize;
+    private int[] gapStart;
+    private int[] gapSize;
 
     public Day09(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
         this.validator = validator;
     }
 
+    @Override
+    public void readInput() {
+        var diskMap = inputLoader.digitGrid()[0];
+        var files = (diskMap.length + 1) / 2;
+        fileStart = new int[files];
+        fileSize = new int[files];
+        gapStart = new int[files];
+        gapSize = new int[files];
+
+        var position = 0;
+        for (var idx = 0; idx < diskMap.length; idx++) {
+            if (idx % 2 == 0) {
+                fileStart[idx / 2] = position;
+                fileSize[idx / 2] = diskMap[idx];
+            } else {
+                gapStart[idx / 2] = position;
+                gapSize[idx / 2] = diskMap[idx];
+            }
+            position += diskMap[idx];
+        }
+    }
+
     @Override
     public void part1() {
-        var diskUsage = parseUsage(inputLoader.string());
-        var updatedList = new ArrayList<DiskUsage>();
-
-        // defrag algorithm
-        for (var idx = 0; idx < diskUsage.size(); idx++) {
-            var usage = diskUsage.get(idx);
-            switch (usage) {
-                case Spacing spacing -> {
-                    // fill from right of list
-                    var toFill = spacing.size();
-                    while (toFill > 0) {
-                        var fillWith = diskUsage.removeLast();
-                        switch (fillWith) {
-                            case FileSegment fileSegment -> {
-                                var movable = Math.min(toFill, fileSegment.size);
-                                updatedList.add(new FileSegment(movable, fileSegment.fileNumber));
-                                if (movable < fileSegment.size) {
-                                    diskUsage.add(fileSegment.reduceSize(movable));
-                                }
-                                toFill -= movable;
-                            }
-                            case Spacing space -> {}
-                        }
-                    }
-                }
-                case FileSegment fileSegment -> {
-                    log.debug("Encountered file {} of size {}, no need to move.", fileSegment.fileNumber, fileSegment.size);
-                    updatedList.add(fileSegment);
+        var checksum = 0L;
+
+        // fill every gap from left to right with blocks taken from the rightmost file
+        var right = fileSize.length - 1;
+        var rightRemaining = fileSize[right];
+        for (var file = 0; file <= right; file++) {
+            checksum += checksum(file, fileStart[file], file == right ? rightRemaining : fileSize[file]);
+
+            var position = gapStart[file];
+            var free = gapSize[file];
+            while (free > 0 && right > file) {
+                var moved = Math.min(free, rightRemaining);
+                checksum += checksum(right, position, moved);
+                position += moved;
+                free -= moved;
+                rightRemaining -= moved;
+                if (rightRemaining == 0) {
+                    rightRemaining = fileSize[--right];
                 }
             }
         }
 
-        log.atDebug()
-                .addArgument(() -> updatedList.stream().map(Object::toString).reduce("", (a, b) -> a + b))
-                .log("Updated list: {}");
-
-        validator.part1(computeChecksum(updatedList));
+        validator.part1(checksum);
     }
 
     @Override
     public void part2() {
-        var diskUsage = parseUsage(inputLoader.string());
-
-        // defrag algorithm
-        for (var idx = 0; idx < diskUsage.size(); idx++) {
-            var usage = diskUsage.get(idx);
-            switch (usage) {
-                case Spacing spacing -> {
-                    // fill from right of list
-                    for (var rtl = diskUsage.size() - 1; rtl >= idx; rtl--) {
-                        var fillAttempt = diskUsage.get(rtl);
-                        if (fillAttempt instanceof FileSegment fileSegment && fileSegment.size <= spacing.size) {
-                            // insert at idx
-                            diskUsage.set(idx, fileSegment);
-
-                            // replace file with space
-                            diskUsage.set(rtl, new Spacing(fileSegment.size()));
-
-                            spacing.shrink(fileSegment.size);
-                            if (spacing.size() > 0) {
-                                diskUsage.add(idx + 1, spacing);
-                            }
-
-                            break;
-                        }
-                    }
-                }
-                case FileSegment s -> {}
+        var freeSpans = new FreeSpans(gapSize);
+        var checksum = 0L;
+
+        // a moved file frees space to the right of all files still to be moved, so that space is never reused
+        for (var file = fileSize.length - 1; file >= 0; file--) {
+            var gap = freeSpans.leftmostFitting(fileSize[file], file);
+            if (gap < 0) {
+                checksum += checksum(file, fileStart[file], fileSize[file]);
+                continue;
             }
+
+            var start = gapStart[gap] + gapSize[gap] - freeSpans.size(gap);
+            checksum += checksum(file, start, fileSize[file]);
+            freeSpans.shrink(gap, fileSize[file]);
         }
 
-        log.atDebug()
-                .addArgument(() -> diskUsage.stream().map(Object::toString).reduce("", (a, b) -> a + b))
-                .log("Updated list: {}");
+        validator.part2(checksum);
+    }
 
-        validator.part2(computeChecksum(diskUsage));
+    /**
+     * The checksum of a file occupying consecutive blocks, computed as an arithmetic series.
+     */
+    private static long checksum(long file, long start, long size) {
+        return file * (start * size + size * (size - 1) / 2);
     }
 
-    private List<DiskUsage> parseUsage(String input) {
-        var diskUsage = new ArrayList<DiskUsage>();
-        for (var idx = 0; idx < input.length(); idx++) {
-            if (idx % 2 == 0) {
-                diskUsage.add(new FileSegment(input.charAt(idx) - '0', idx / 2));
-            } else {
-                diskUsage.add(new Spacing(input.charAt(idx) - '0'));
+    /**
+     * A segment tree over the free space remaining in every gap, holding the maximum of each range. This finds the
+     * leftmost gap that can hold a file of a given size in logarithmic time.
+     */
+    private static class FreeSpans {
+        private final int leaves;
+        private final int[] tree;
+
+        private FreeSpans(int[] sizes) {
+            leaves = Integer.highestOneBit(Math.max(1, sizes.length - 1)) << 1;
+            tree = new int[leaves * 2];
+            System.arraycopy(sizes, 0, tree, leaves, sizes.length);
+            for (var node = leaves - 1; node > 0; node--) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
             }
         }
 
-        return diskUsage;
-    }
+        int size(int gap) {
+            return tree[leaves + gap];
+        }
 
-    private long computeChecksum(List<DiskUsage> diskUsage) {
-        var checkSum = 0L;
-        var blockPointer = 0;
-        for (var file : diskUsage) {
-            if (file instanceof FileSegment fileSegment) {
-                for (var i = 0; i < fileSegment.size; i++) {
-                    checkSum += (blockPointer + i) * fileSegment.fileNumber;
-                }
+        /**
+         * The leftmost gap before the limit with at least the requested free space, or -1 if there is none.
+         */
+        int leftmostFitting(int required, int limit) {
+            if (tree[1] < required) {
+                return -1;
             }
 
-            blockPointer += file.size();
+            var node = 1;
+            while (node < leaves) {
+                node = tree[2 * node] >= required ? 2 * node : 2 * node + 1;
+            }
+            var gap = node - leaves;
+            return gap < limit ? gap : -1;
         }
 
-        return checkSum;
+        void shrink(int gap, int used) {
+            var node = leaves + gap;
+            tree[node] -= used;
+            for (node /= 2; node > 0; node /= 2) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
     }
 }
@@ -7,8 +7,8 @@ import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
 
+import java.util.ArrayDeque;
 import java.util.HashSet;
-import java.util.LinkedList;
 
 @Day(year = 2024, day = 10, name = "Hoof it")
 public class Day10 implements DaySolver {
@@ -49,15 +49,15 @@ public class Day10 implements DaySolver {
         var visited = new HashSet<Point>();
         var score = 0;
 
-        var processing = new LinkedList<Point>();
+        var processing = new ArrayDeque<Point>();
         processing.offer(tailhead);
 
         while (!processing.isEmpty()) {
             var current = processing.poll();
             for (var neighbour : current.neighbours()) {
-                if ((!trackVisited || !visited.contains(neighbour)) && (grid.at(current) - '0') == (grid.at(neighbour) - '1')) {
+                if ((!trackVisited || !visited.contains(neighbour)) && grid.charAt(current) + 1 == grid.charAt(neighbour)) {
                     visited.add(neighbour);
-                    if ((grid.at(neighbour) - '0') == 9) {
+                    if (grid.charAt(neighbour) == '9') {
                         score++;
                     } else {
                         processing.offer(neighbour);
@@ -2,21 +2,20 @@ package com.github.gjong.advent.years.y2024;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
+import com.github.gjong.advent.algo.StateEvolution;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import org.slf4j.Logger;
 
-import java.util.*;
+import java.util.Arrays;
 
 @Day(year = 2024, day = 11, name = "Plutonian Pebbles")
 public class Day11 implements DaySolver {
-    private final Logger log = org.slf4j.LoggerFactory.getLogger(Day11.class);
 
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    private final List<String> stones = new ArrayList<>();
-    record CachedKey(int round, long stone) {}
+    private StateEvolution<Long> pebbles;
+    private StateEvolution<Long>.Population stones;
 
     public Day11(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
@@ -25,57 +24,57 @@ public class Day11 implements DaySolver {
 
     @Override
     public void readInput() {
-        stones.addAll(Arrays.asList(inputLoader.split(" ")));
+        var engraved = inputLoader.longs();
+        pebbles = inputLoader.parsed("pebbles", loader -> StateEvolution.explore(
+                Arrays.stream(engraved).boxed().toList(),
+                Day11::blink));
+
+        stones = pebbles.population();
+        for (var stone : engraved) {
+            stones.add(stone, 1);
+        }
     }
 
     @Override
     public void part1() {
-        var cache = new HashMap<CachedKey, Long>();
-        var counted = stones.stream()
-                .map(Long::parseLong)
-                .mapToLong(stone -> stonesAfterBlink(25, stone, cache))
-                .sum();
+        validator.part1(pebbles.evolve(stones, 25).total());
+    }
 
-        validator.part1(counted);
+    @Override
+    public void part2() {
+        validator.part2(pebbles.evolve(stones, 75).total());
     }
 
-    private long stonesAfterBlink(int blinkRemaining, long stone, Map<CachedKey, Long> cache) {
-        if (cache.containsKey(new CachedKey(blinkRemaining, stone))) {
-            return cache.get(new CachedKey(blinkRemaining, stone));
+    private static void blink(long stone, StateEvolution.Transitions<Long> transitions) {
+        if (stone == 0) {
+            transitions.add(1L);
+            return;
         }
 
-        var counted = 0L;
-        if (blinkRemaining == 0) {
-            counted = 1;
-        } else if (stone == 0) {
-            counted = stonesAfterBlink(blinkRemaining - 1, 1, cache);
+        var amountOfDigits = digits(stone);
+        if (amountOfDigits % 2 == 0) {
+            var modulo = pow10(amountOfDigits / 2);
+            transitions.add(stone / modulo);
+            transitions.add(stone % modulo);
         } else {
-            int amountOfDigits = Long.toString(stone).length();
-            if (amountOfDigits % 2 == 0) {
-                var middle = amountOfDigits / 2;
-                var modulo = (int) Math.pow(10, middle);
-                var right = stone % modulo;
-                var left = (stone - right) / modulo;
-
-                counted = stonesAfterBlink(blinkRemaining - 1, left, cache)
-                        + stonesAfterBlink(blinkRemaining - 1, right, cache);
-            } else {
-                counted = stonesAfterBlink(blinkRemaining - 1, stone * 2024, cache);
-            }
+            transitions.add(stone * 2024);
         }
-        cache.put(new CachedKey(blinkRemaining, stone), counted);
-
-        return counted;
     }
 
-    @Override
-    public void part2() {
-        var cache = new HashMap<CachedKey, Long>();
-        var counted = stones.stream()
-                .map(Long::parseLong)
-                .mapToLong(stone -> stonesAfterBlink(75, stone, cache))
-                .sum();
+    private static int digits(long value) {
+        var digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
 
-        validator.part2(counted);
+    private static long pow10(int exponent) {
+        var result = 1L;
+        for (var i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
     }
 }
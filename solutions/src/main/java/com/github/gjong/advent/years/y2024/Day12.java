@@ -6,6 +6,7 @@ import com.github.gjong.advent.grid.CharGrid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.geo.PointSet;
 import org.slf4j.Logger;
 
 import java.util.*;
@@ -41,12 +42,12 @@ public class Day12 implements DaySolver {
 
     private int computeTotalPrice(boolean trackSimpleBorders) {
         var grid = inputLoader.charGrid();
-        var processed = new HashSet<Point>();
+        var processed = new PointSet(grid.rows() * grid.cols());
 
         var prices = new ArrayList<Price>();
         for (var x = 0; x < grid.cols(); x++) {
             for (var y = 0; y < grid.rows(); y++) {
-                if (processed.contains(new Point(x, y))) {
+                if (processed.contains(x, y)) {
                     continue;
                 }
 
@@ -57,10 +58,12 @@ public class Day12 implements DaySolver {
         return prices.stream().mapToInt(Price::compute).sum();
     }
 
-    private Price computePrice(CharGrid grid, Point start, Set<Point> processed, boolean trackSimpleBorders) {
-        var processQueue = new LinkedHashSet<Point>();
-        var shapePoints = new HashSet<Point>();
+    private Price computePrice(CharGrid grid, Point start, PointSet processed, boolean trackSimpleBorders) {
+        var processQueue = new ArrayDeque<Point>();
+        var queued = new PointSet();
+        var shapePoints = new PointSet();
         processQueue.add(start);
+        queued.add(start);
 
         var borders = 0;
         while (!processQueue.isEmpty()) {
@@ -70,14 +73,16 @@ public class Day12 implements DaySolver {
 
             for (var neighbour : current.neighbours()) {
                 if (processed.contains(neighbour)) {
-                    if (grid.at(neighbour) != grid.at(current)) {
+                    if (grid.charAt(neighbour) != grid.charAt(current)) {
                         borders++;
                     }
                     continue;
                 }
 
-                if (grid.at(neighbour) == grid.at(current)) {
-                    processQueue.add(neighbour);
+                if (grid.charAt(neighbour) == grid.charAt(current)) {
+                    if (queued.add(neighbour)) {
+                        processQueue.add(neighbour);
+                    }
                 } else {
                     borders++;
                 }
@@ -92,38 +97,43 @@ public class Day12 implements DaySolver {
         return new Price(shapePoints.size(), borders);
     }
 
-    private int computeCorners(Set<Point> shapePoints) {
-        var corners = 0;
-        for (var point : shapePoints) {
+    private int computeCorners(PointSet shapePoints) {
+        var corners = new int[1];
+        shapePoints.forEachPoint((x, y) -> {
+            var up = shapePoints.contains(x, y - 1);
+            var down = shapePoints.contains(x, y + 1);
+            var left = shapePoints.contains(x - 1, y);
+            var right = shapePoints.contains(x + 1, y);
+
             // inward corners
-            if (shapePoints.contains(point.up()) && shapePoints.contains(point.up().right()) && !shapePoints.contains(point.right())) {
-                corners++;
+            if (up && shapePoints.contains(x + 1, y - 1) && !right) {
+                corners[0]++;
             }
-            if (shapePoints.contains(point.up()) && shapePoints.contains(point.up().left()) && !shapePoints.contains(point.left())) {
-                corners++;
+            if (up && shapePoints.contains(x - 1, y - 1) && !left) {
+                corners[0]++;
             }
-            if (shapePoints.contains(point.down()) && shapePoints.contains(point.down().left()) && !shapePoints.contains(point.left())) {
-                corners++;
+            if (down && shapePoints.contains(x - 1, y + 1) && !left) {
+                corners[0]++;
             }
-            if (shapePoints.contains(point.down()) && shapePoints.contains(point.down().right()) && !shapePoints.contains(point.right())) {
-                corners++;
+            if (down && shapePoints.contains(x + 1, y + 1) && !right) {
+                corners[0]++;
             }
 
             // outer corners
-            if (!shapePoints.contains(point.up()) && !shapePoints.contains(point.left())) {
-                corners++;
+            if (!up && !left) {
+                corners[0]++;
             }
-            if (!shapePoints.contains(point.up()) && !shapePoints.contains(point.right())) {
-                corners++;
+            if (!up && !right) {
+                corners[0]++;
             }
-            if (!shapePoints.contains(point.down()) && !shapePoints.contains(point.left())) {
-                corners++;
+            if (!down && !left) {
+                corners[0]++;
             }
-            if (!shapePoints.contains(point.down()) && !shapePoints.contains(point.right())) {
-                corners++;
+            if (!down && !right) {
+                corners[0]++;
             }
-        }
-        return corners;
+        });
+        return corners[0];
     }
 
 }
@@ -11,8 +11,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashSet;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -91,13 +89,12 @@ public class Day14 implements DaySolver {
     }
 
     private Stream<Robot> parseRobots() {
-        var pattern = Pattern.compile("p=(?<X>-?\\d+),(?<Y>-?\\d+) v=(?<vX>-?\\d+),(?<vY>-?\\d+)");
-        return inputLoader.splitOnNewLine()
-                .map(pattern::matcher)
-                .filter(Matcher::matches)
-                .map(matcher -> new Robot(
-                        Point.of(Integer.parseInt(matcher.group("X")), Integer.parseInt(matcher.group("Y"))),
-                        Point.of(Integer.parseInt(matcher.group("vX")), Integer.parseInt(matcher.group("vY")))));
+        // every line reads p=X,Y v=vX,vY
+        return inputLoader.intsPerLine()
+                .filter(numbers -> numbers.length == 4)
+                .map(numbers -> new Robot(
+                        Point.of(numbers[0], numbers[1]),
+                        Point.of(numbers[2], numbers[3])));
     }
 
     private long countRobotsInQuadrants(List<Point> robots) {
@@ -2,20 +2,16 @@ package com.github.gjong.advent.years.y2024;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.algo.Node;
 import com.github.gjong.advent.algo.PathFinding;
 import com.github.gjong.advent.grid.CharGrid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Direction;
-import com.github.gjong.advent.geo.Point;
-import com.github.gjong.advent.geo.Vector;
-
-import java.util.HashMap;
-import java.util.List;
 
 @Day(year = 2024, day = 16, name = "Reindeer Maze")
 public class Day16 implements DaySolver {
+    private static final int EAST = 0;
+    private static final int[] DX = {1, 0, -1, 0};
+    private static final int[] DY = {0, 1, 0, -1};
 
     private final InputLoader inputLoader;
     private final Validator validator;
@@ -34,19 +30,16 @@ public class Day16 implements DaySolver {
 
     @Override
     public void part1() {
-        var startPos = new Step(grid.findChar('S').getFirst(), Point.east, new HashMap<>());
-        var endPos = grid.findChar('E').getFirst();
-
-        startPos.setCost(0L);
-        var cost = PathFinding.dijkstra(
-                List.of(startPos),
-                step -> step.location.equals(endPos));
+        var start = grid.findChar('S').getFirst();
+        var end = grid.findChar('E').getFirst();
+        var endCell = end.y() * grid.cols() + end.x();
 
-        if (cost.isEmpty()) {
-            throw new IllegalStateException("No path found");
-        }
+        var paths = PathFinding.over(grid.rows() * grid.cols() * 4, this::neighbours)
+                .from(state(start.x(), start.y(), EAST))
+                .until(state -> state / 4 == endCell)
+                .dijkstra();
 
-        validator.part1(cost.get().cost());
+        validator.part1(paths.cost());
     }
 
     @Override
@@ -54,36 +47,25 @@ public class Day16 implements DaySolver {
 
     }
 
-    private record StepDirection(Point location, Direction direction) {}
-
-    private class Step extends Node<Step> {
-        private final Point location;
-        private final Direction direction;
-        private final HashMap<StepDirection, Step> cache;
-
-        private Step(Point location, Direction direction, HashMap<StepDirection, Step> cache) {
-            this.location = location;
-            this.direction = direction;
-            this.cache = cache;
+    /**
+     * Every state is a position combined with the direction the reindeer is facing, moving forward costs 1 while
+     * moving in any other direction includes the cost of turning.
+     */
+    private void neighbours(int state, PathFinding.Edges edges) {
+        var cell = state / 4;
+        var facing = state % 4;
+        var x = cell % grid.cols();
+        var y = cell / grid.cols();
+        for (var direction = 0; direction < 4; direction++) {
+            var nextX = x + DX[direction];
+            var nextY = y + DY[direction];
+            if (grid.charAt(nextX, nextY) != '#') {
+                edges.add(state(nextX, nextY, direction), direction == facing ? 1 : 1001);
+            }
         }
+    }
 
-        @Override
-        public List<NeighbourWithCost<Step>> neighbours() {
-            return location.neighbours()
-                    .stream()
-                    .filter(point -> grid.at(point) != '#')
-                    .map(step -> {
-                        var direction = Vector.direction(location, step);
-                        var cost = direction.equals(this.direction) ? 1L : 1001L;
-                        if (!cache.containsKey(new StepDirection(step, direction))) {
-                            var nextStep = new Step(step, direction, cache);
-                            cache.put(new StepDirection(step, direction), nextStep);
-                            return new NeighbourWithCost<>(nextStep, cost);
-                        }
-
-                        return new NeighbourWithCost<>(cache.get(new StepDirection(step, direction)), cost);
-                    })
-                    .toList();
-        }
+    private int state(int x, int y, int direction) {
+        return (y * grid.cols() + x) * 4 + direction;
     }
 }
@@ -4,18 +4,15 @@ import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Day(year = 2024, day = 17, name = "Chronospatial Computer")
 public class Day17 implements DaySolver {
 
-    private final Logger log = LoggerFactory.getLogger(Day17.class);
+    private static final int PARALLEL_CANDIDATES = 64;
 
     private static final int A = 0;
     private static final int B = 1;
@@ -23,6 +20,7 @@ public class Day17 implements DaySolver {
 
     private final InputLoader inputLoader;
     private final Validator validator;
+    private long[] registers;
     private ComputeEngine engine;
 
     public Day17(InputLoader inputLoader, Validator validator) {
@@ -30,115 +28,190 @@ public class Day17 implements DaySolver {
         this.validator = validator;
     }
 
-    enum Opcode {
-        adv, bxl, bst, jnz, bxc, out, bdv, cdv
-    }
-
     @Override
     public void readInput() {
         var lines = inputLoader.split("\n");
-        engine = new ComputeEngine(
-                new long[]{Integer.parseInt(lines[0].substring(12)),
-                        Integer.parseInt(lines[1].substring(12)),
-                        Integer.parseInt(lines[2].substring(12))},
-                Arrays.stream(lines[4].substring(9)
-                        .split(",")).mapToInt(Integer::parseInt).toArray()
-        );
+        registers = new long[]{
+                Long.parseLong(lines[0].substring(12).trim()),
+                Long.parseLong(lines[1].substring(12).trim()),
+                Long.parseLong(lines[2].substring(12).trim())};
+        engine = new ComputeEngine(Arrays.stream(lines[4].substring(9).trim()
+                .split(",")).mapToInt(Integer::parseInt).toArray());
     }
 
     @Override
     public void part1() {
-        validator.part1(engine.run());
+        var output = engine.run(registers[A], registers[B], registers[C]);
+        validator.part1(Arrays.stream(output)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",")));
     }
 
     @Override
     public void part2() {
-        validator.part2(find(engine.program.length - 1, 0));
+        validator.part2(findQuine());
     }
 
-    private long find(int pointer, long a) {
-        if (pointer == -1) {
-            return a;
-        }
-
-        a = a * 8;
-        for (var i = 0; i < 8; i++) {
-            engine.reset(a + i, 0, 0);
-            engine.run();
-            if (engine.tailEqual()) {
-                long candidate = find(pointer - 1, a + i);
-                if (candidate >= 0) {
-                    return candidate;
-                }
+    /**
+     * Every iteration of the program outputs a digit based on the lowest bits of register A and then shifts three
+     * bits out of A. The value of A is therefore built three bits at a time, starting with the last output digit. All
+     * candidates of a digit are extended together, so the smallest candidate surviving the last digit is the answer.
+     */
+    private long findQuine() {
+        var program = engine.program();
+        var candidates = new long[]{0};
+        for (var pointer = program.length - 1; pointer >= 0 && candidates.length > 0; pointer--) {
+            var expectedFrom = pointer;
+            var extended = Arrays.stream(candidates)
+                    .flatMap(a -> LongStream.range(a * 8, a * 8 + 8));
+            if (candidates.length >= PARALLEL_CANDIDATES) {
+                extended = extended.parallel();
             }
+            candidates = extended
+                    .filter(a -> engine.outputs(a, registers[B], registers[C], program, expectedFrom))
+                    .toArray();
         }
 
-        return -1;
+        if (candidates.length == 0) {
+            throw new IllegalStateException("The program cannot output a copy of itself.");
+        }
+        return candidates[0];
     }
 
+    /**
+     * Runs a three-bit program. The program is decoded once into flat arrays with the combo operands resolved, the
+     * registers live in locals during a run so a single engine can be used by multiple threads.
+     * <p>
+     * The arrays are indexed on the instruction pointer itself, not on the instruction, so a jump to an odd address
+     * reads the operand there as an opcode just like the machine would.
+     */
     public static class ComputeEngine {
-        private final long[] registers;
+        private static final int ADV = 0;
+        private static final int BXL = 1;
+        private static final int BST = 2;
+        private static final int JNZ = 3;
+        private static final int BXC = 4;
+        private static final int OUT = 5;
+        private static final int BDV = 6;
+        private static final int CDV = 7;
+
+        private static final int LITERAL = -1;
+        private static final int RESERVED = -2;
+
+        private final int[] program;
+        // indexed by the instruction pointer, the last value has no operand and halts the program
+        private final int[] opcodes;
+        private final int[] operands;
+        private final int[] comboRegisters;
+
+        public ComputeEngine(int[] program) {
+            this.program = program;
 
-        int[] program;
-        int instructionPointer;
+            var pointers = Math.max(program.length - 1, 0);
+            opcodes = new int[pointers];
+            operands = new int[pointers];
+            comboRegisters = new int[pointers];
+            for (var pointer = 0; pointer < pointers; pointer++) {
+                opcodes[pointer] = program[pointer];
+                operands[pointer] = program[pointer + 1];
+                comboRegisters[pointer] = switch (operands[pointer]) {
+                    case 4 -> A;
+                    case 5 -> B;
+                    case 6 -> C;
+                    // only an error once executed, a pointer may never be reached
+                    case 7 -> isComboInstruction(opcodes[pointer]) ? RESERVED : LITERAL;
+                    default -> LITERAL;
+                };
+            }
+        }
 
-        List<Integer> output = new ArrayList<>();
+        public int[] program() {
+            return program.clone();
+        }
 
-        public ComputeEngine(long[] registers, int[] program) {
-            this.registers = registers;
-            this.program = program;
-            this.instructionPointer = 0;
+        /**
+         * Run the program to completion and collect all output.
+         */
+        public int[] run(long a, long b, long c) {
+            var output = new int[Math.max(program.length, 8)];
+            var written = execute(a, b, c, output, null, 0);
+            while (written > output.length) {
+                // the run is deterministic, so simply run again with room for more output
+                output = new int[output.length * 2];
+                written = execute(a, b, c, output, null, 0);
+            }
+            return Arrays.copyOf(output, written);
         }
 
-        public void reset(long a, long b, long c) {
-            registers[A] = a;
-            registers[B] = b;
-            registers[C] = c;
-            instructionPointer = 0;
-            output.clear();
+        /**
+         * Whether the program outputs exactly the expected digits starting at the given offset. The run stops at
+         * the first digit that differs.
+         */
+        public boolean outputs(long a, long b, long c, int[] expected, int from) {
+            return execute(a, b, c, null, expected, from) == expected.length - from;
         }
 
-        public String run() {
-            while (instructionPointer < program.length) {
-                var combo = switch (program[instructionPointer + 1]) {
-                    case 4 -> registers[0];
-                    case 5 -> registers[1];
-                    case 6 -> registers[2];
-                    default -> program[instructionPointer + 1];
+        /**
+         * Executes the program, either writing the output into the buffer or comparing it with the expected digits.
+         *
+         * @return the number of digits output, {@code -1} when an output did not match the expected digits or more
+         * than the length of the buffer when it was too small
+         */
+        private int execute(long a, long b, long c, int[] output, int[] expected, int from) {
+            var written = 0;
+            var pointer = 0;
+            while (pointer < opcodes.length) {
+                var operand = operands[pointer];
+                var combo = switch (comboRegisters[pointer]) {
+                    case A -> a;
+                    case B -> b;
+                    case C -> c;
+                    case RESERVED -> throw new IllegalStateException("Combo operand 7 is reserved.");
+                    default -> operand;
                 };
 
-                var opcode = Opcode.class.getEnumConstants()[program[instructionPointer]];
-                switch (opcode) {
-                    case adv -> registers[A] = registers[A] / (1L << combo);
-                    case bxl -> registers[B] ^= program[instructionPointer + 1];
-                    case bst -> registers[B] = combo & 7;
-                    case jnz -> {
-                        if (registers[A] != 0) {
-                            instructionPointer = program[instructionPointer + 1] - 2;
+                switch (opcodes[pointer]) {
+                    case ADV -> a = divide(a, combo);
+                    case BXL -> b ^= operand;
+                    case BST -> b = combo & 7;
+                    case JNZ -> {
+                        if (a != 0) {
+                            pointer = operand;
+                            continue;
+                        }
+                    }
+                    case BXC -> b ^= c;
+                    case OUT -> {
+                        var digit = (int) (combo & 7);
+                        if (expected != null) {
+                            if (from + written >= expected.length || expected[from + written] != digit) {
+                                return -1;
+                            }
+                        } else if (written == output.length) {
+                            return written + 1;
+                        } else {
+                            output[written] = digit;
                         }
+                        written++;
                     }
-                    case bxc -> registers[B] ^= registers[C];
-                    case bdv -> registers[B] = registers[A] / (1L << combo);
-                    case cdv -> registers[C] = registers[A] / (1L << combo);
-                    case out -> output.add((int) combo & 7);
+                    case BDV -> b = divide(a, combo);
+                    case CDV -> c = divide(a, combo);
+                    default -> throw new IllegalStateException("Unknown opcode " + opcodes[pointer]);
                 }
-
-                instructionPointer += 2;
+                pointer += 2;
             }
+            return written;
+        }
 
-            return output.stream()
-                    .map(String::valueOf)
-                    .collect(Collectors.joining(","));
+        /**
+         * Divide by the power of two, the register values are never negative.
+         */
+        private static long divide(long value, long power) {
+            return power >= Long.SIZE ? 0 : value >>> power;
         }
 
-        public boolean tailEqual() {
-            int d = program.length - output.size();
-            for (int i = 0; i < output.size(); i++) {
-                if (program[d + i] != output.get(i)) {
-                    return false;
-                }
-            }
-            return true;
+        private static boolean isComboInstruction(int opcode) {
+            return opcode == ADV || opcode == BST || opcode == OUT || opcode == BDV || opcode == CDV;
         }
     }
 }
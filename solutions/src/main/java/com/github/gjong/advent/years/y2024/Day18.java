@@ -2,26 +2,21 @@ package com.github.gjong.advent.years.y2024;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.LimitRuns;
-import com.github.gjong.advent.algo.Node;
+import com.github.gjong.advent.algo.Connectivity;
 import com.github.gjong.advent.algo.PathFinding;
+import com.github.gjong.advent.algo.ShortestPaths;
 import com.github.gjong.advent.grid.CharGrid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.geo.Point;
 import org.slf4j.Logger;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 @Day(year = 2024, day = 18, name = "RAM Run")
 public class Day18 implements DaySolver {
 
     private final Logger log = org.slf4j.LoggerFactory.getLogger(Day18.class);
 
     private CharGrid grid;
+    private int[] blocks;
     private final InputLoader inputLoader;
     private final Validator validator;
 
@@ -37,69 +32,54 @@ public class Day18 implements DaySolver {
             // hack since testing grid is only 6x6
             grid = new CharGrid(7, 7);
         }
-        inputLoader.splitOnNewLine()
-                .map(Point::of)
-                .limit(1024)                        // limit of bytes to fall part1
-                .forEach(point -> grid.set(point, '#'));
+
+        var coordinates = inputLoader.ints();
+        blocks = new int[coordinates.length / 2];
+        for (var idx = 0; idx < blocks.length; idx++) {
+            blocks[idx] = coordinates[idx * 2 + 1] * grid.cols() + coordinates[idx * 2];
+            if (idx < 1024) {                       // limit of bytes to fall part1
+                grid.set(coordinates[idx * 2], coordinates[idx * 2 + 1], '#');
+            }
+        }
     }
 
     @Override
     public void part1() {
-        var stepCache = new HashMap<Point, HistorianStep>();
-        var start = new HistorianStep(Point.zero, stepCache);
-        var end = Point.of(grid.cols() - 1, grid.rows() - 1);
-
-        start.setCost(0L);
-        var cheapestRoute = PathFinding.dijkstra(List.of(start), step -> step.location.equals(end));
-        if (cheapestRoute.isEmpty()) {
-            throw new IllegalStateException("No path found.");
-        }
-
-        validator.part1(cheapestRoute.get().cost());
+        validator.part1(shortestPath().cost());
     }
 
-    @LimitRuns
     @Override
     public void part2() {
-        var start = new HistorianStep(Point.zero, new HashMap<>());
-        var end = Point.of(grid.cols() - 1, grid.rows() - 1);
-
-        var allBlocks = new ArrayList<>(inputLoader.splitOnNewLine()
-                .map(Point::of)
-                .skip(1024)
-                .toList());
-
-        Point lastBlockAdded = null;
-        start.setCost(0L);
-        while (PathFinding.dijkstra(List.of(start), step -> step.location.equals(end)).isPresent()) {
-            lastBlockAdded = allBlocks.removeFirst();
-            grid.set(lastBlockAdded, '#');
-
-            start = new HistorianStep(Point.zero, new HashMap<>());
-            start.setCost(0L);
+        var cols = grid.cols();
+        var cells = grid.rows() * cols;
+        var cut = Connectivity.firstDisconnect(cells, (state, edges) -> {
+            var x = state % cols;
+            if (x + 1 < cols) edges.add(state + 1, 1);
+            if (x > 0) edges.add(state - 1, 1);
+            if (state + cols < cells) edges.add(state + cols, 1);
+            if (state >= cols) edges.add(state - cols, 1);
+        }, blocks, 0, cells - 1);
+        if (cut < 0) {
+            throw new IllegalStateException("The exit is never cut off.");
         }
 
-        validator.part2(lastBlockAdded.x() + "," + lastBlockAdded.y());
+        validator.part2(blocks[cut] % cols + "," + blocks[cut] / cols);
     }
 
-    private class HistorianStep extends Node<HistorianStep> {
-        private final Point location;
-        private final Map<Point, HistorianStep> cache;
-
-        public HistorianStep(Point location, Map<Point, HistorianStep> cache) {
-            this.location = location;
-            this.cache = cache;
-        }
-
-        @Override
-        public List<NeighbourWithCost<HistorianStep>> neighbours() {
-            return location.neighbours()
-                    .stream()
-                    .filter(point -> grid.at(point) == '.')
-                    .map(point -> cache.computeIfAbsent(point, key -> new HistorianStep(key, cache)))
-                    .map(step -> new NeighbourWithCost<>(step, 1L))
-                    .toList();
-        }
+    private ShortestPaths shortestPath() {
+        var end = grid.rows() * grid.cols() - 1;
+        return PathFinding.over(grid.rows() * grid.cols(), this::neighbours)
+                .from(0)
+                .until(state -> state == end)
+                .dial(1);
     }
 
+    private void neighbours(int state, PathFinding.Edges edges) {
+        var x = state % grid.cols();
+        var y = state / grid.cols();
+        if (grid.charAt(x + 1, y) == '.') edges.add(state + 1, 1);
+        if (grid.charAt(x - 1, y) == '.') edges.add(state - 1, 1);
+        if (grid.charAt(x, y + 1) == '.') edges.add(state + grid.cols(), 1);
+        if (grid.charAt(x, y - 1) == '.') edges.add(state - grid.cols(), 1);
+    }
 }
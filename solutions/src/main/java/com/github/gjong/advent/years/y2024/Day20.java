@@ -2,16 +2,13 @@ package com.github.gjong.advent.years.y2024;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.common.Grid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.geo.PointIntMap;
 import com.github.gjong.advent.geo.Vector;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.function.Predicate;
+import java.util.ArrayDeque;
 
 @Day(year = 2024, day = 20, name = "Race Condition")
 public class Day20 implements DaySolver {
@@ -35,16 +32,19 @@ public class Day20 implements DaySolver {
     }
 
     private int countCheatsWithMaxSteps(int steps) {
-        var grid = prepareGrid();
-        resetWalls(grid);
+        var distances = prepareDistances();
+        var pathPositions = distances.points().toList();
+        var pathDistances = pathPositions.stream()
+                .mapToInt(distances::get)
+                .toArray();
 
         var cheats = 0;
-        var pathPositions = grid.find(GridPlace::isNotWall);
-        for (var cheatStart : pathPositions) {
-            for (var cheatEnd : pathPositions) {
-                var stepDistance = Vector.stepsInVector(cheatEnd, cheatStart);
+        for (var start = 0; start < pathPositions.size(); start++) {
+            var cheatStart = pathPositions.get(start);
+            for (var end = 0; end < pathPositions.size(); end++) {
+                var stepDistance = Vector.stepsInVector(pathPositions.get(end), cheatStart);
                 if (stepDistance <= steps) {
-                    var cheatDistance = grid.at(cheatEnd).distance - grid.at(cheatStart).distance - stepDistance;
+                    var cheatDistance = pathDistances[end] - pathDistances[start] - stepDistance;
                     if (cheatDistance >= 100) {
                         cheats++;
                     }
@@ -55,66 +55,33 @@ public class Day20 implements DaySolver {
     }
 
     /**
-     * Resets the distance value of all grid places that are not walls to -1.
-     * This makes sure the gain computation is not exceeding the actual gain.
+     * Walks the race track from the start position and records the distance from the start for every position on
+     * the track. Walls are not part of the resulting map.
      *
-     * @param grid the grid containing the grid places to reset
+     * @return the distance from the start for every position on the track
      */
-    private void resetWalls(Grid<GridPlace> grid) {
-        grid.find(Predicate.not(GridPlace::isNotWall))
-                .stream()
-                .map(grid::at)
-                .forEach(gridPlace -> gridPlace.distance = -1);
-    }
-
-    /**
-     * Prepares and processes a grid based on the inputLoader data.
-     *
-     * @return the prepared Grid object after processing and setting distances for grid places
-     */
-    private Grid<GridPlace> prepareGrid() {
-        var grid = Grid.of(
-                Arrays.asList(inputLoader.split("\n")),
-                (point, value) -> new GridPlace(value));
-
-        var startPos = grid.find(place -> place.value == 'S');
-        var investigate = Set.of(startPos.getFirst());
-
-        var currentDistance = 0;
+    private PointIntMap prepareDistances() {
+        var grid = inputLoader.charGrid();
+        var distances = new PointIntMap(grid.rows() * grid.cols(), Integer.MAX_VALUE);
+
+        var start = grid.findChar('S').getFirst();
+        var investigate = new ArrayDeque<Point>();
+        distances.put(start, 0);
+        investigate.add(start);
         while (!investigate.isEmpty()) {
-            var nextInvestigate = new HashSet<Point>();
-
-            for (var lookAt : investigate) {
-                var gridPlace = grid.at(lookAt);
-                gridPlace.setDistance(currentDistance);
-                for (var neighbor : lookAt.neighbours()) {
-                    var nGridPlace = grid.at(neighbor);
-                    if (nGridPlace.isNotWall() && nGridPlace.distance == Integer.MAX_VALUE) {
-                        nextInvestigate.add(neighbor);
-                    }
+            var lookAt = investigate.removeFirst();
+            var currentDistance = distances.get(lookAt);
+            for (var neighbor : lookAt.neighbours()) {
+                if (isTrack(grid.at(neighbor)) && !distances.containsKey(neighbor)) {
+                    distances.put(neighbor, currentDistance + 1);
+                    investigate.add(neighbor);
                 }
             }
-
-            currentDistance++;
-            investigate = nextInvestigate;
         }
-        return grid;
+        return distances;
     }
 
-    private static class GridPlace {
-        private final char value;
-        private int distance = Integer.MAX_VALUE;
-
-        private GridPlace(char value) {
-            this.value = value;
-        }
-
-        public void setDistance(int distance) {
-            this.distance = distance;
-        }
-
-        public boolean isNotWall() {
-            return value != '#';
-        }
+    private static boolean isTrack(char value) {
+        return value == '.' || value == 'S' || value == 'E';
     }
 }
@@ -2,24 +2,21 @@ package com.github.gjong.advent.years.y2025;
 
 import com.github.gjong.advent.Day;
 import com.github.gjong.advent.DaySolver;
-import com.github.gjong.advent.geo.Point;
-import com.github.gjong.advent.grid.CharGrid;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
-import com.github.gjong.advent.grid.VirtualGrid;
+import com.github.gjong.advent.grid.BitGrid;
+import com.github.gjong.advent.grid.NeighbourCounts;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.ArrayDeque;
 
 @Day(year = 2025, day = 4, name = "Printing Department")
 public class Day04 implements DaySolver {
+    private static final int MAX_NEIGHBOURS = 3;
 
     private final InputLoader inputLoader;
     private final Validator validator;
 
-    private CharGrid grid;
-
-    private record ValidRolls(int count, List<Point> locations) {}
+    private BitGrid rolls;
 
     public Day04(InputLoader inputLoader, Validator validator) {
         this.inputLoader = inputLoader;
@@ -28,45 +25,50 @@ public class Day04 implements DaySolver {
 
     @Override
     public void part1() {
-        ValidRolls validRolls = determineValidRolls();
-        validator.part1(validRolls.count);
-    }
-
-    @Override
-    public void part2() {
-        long validRolls = 0;
-        ValidRolls validLocations = determineValidRolls();
-        while (!validLocations.locations.isEmpty()) {
-            validRolls += validLocations.count;
+        var counts = new NeighbourCounts(rolls, 1);
 
-            // remove the roll from the grid for the next iteration
-            validLocations.locations.forEach(p -> grid.set(p, '.'));
-            validLocations = determineValidRolls();
+        var accessible = 0;
+        for (int y = 0; y < rolls.rows(); y++) {
+            for (int x = 0; x < rolls.cols(); x++) {
+                if (rolls.get(x, y) && counts.count(x, y) <= MAX_NEIGHBOURS) {
+                    accessible++;
+                }
+            }
         }
 
-        validator.part2(validRolls);
+        validator.part1(accessible);
     }
 
-    private ValidRolls determineValidRolls() {
-        int rollCount = 0;
-        List<Point> locations = new ArrayList<>();
+    @Override
+    public void part2() {
+        var counts = new NeighbourCounts(rolls, 1);
 
-        VirtualGrid<Character> virtualGrid = grid.virtual(3, 3);
-        for (int y = 0; y < grid.rows(); y++) {
-            for (int x = 0; x < grid.cols(); x++) {
-                virtualGrid.position(x, y);
-                if (virtualGrid.at() == '@' && virtualGrid.count('@') <= 4) {
-                    rollCount++;
-                    locations.add(new Point(x, y));
+        // every roll becomes accessible exactly once, the moment its count drops to the maximum
+        var worklist = new ArrayDeque<int[]>();
+        for (int y = 0; y < rolls.rows(); y++) {
+            for (int x = 0; x < rolls.cols(); x++) {
+                if (rolls.get(x, y) && counts.count(x, y) <= MAX_NEIGHBOURS) {
+                    worklist.add(new int[]{x, y});
                 }
             }
         }
 
-        return new ValidRolls(rollCount, locations);
+        long removed = 0;
+        while (!worklist.isEmpty()) {
+            var roll = worklist.poll();
+            removed++;
+            counts.deactivate(roll[0], roll[1], (x, y, count) -> {
+                if (count == MAX_NEIGHBOURS) {
+                    worklist.add(new int[]{x, y});
+                }
+            });
+        }
+
+        validator.part2(removed);
     }
 
     @Override
     public void readInput() {
-        grid = inputLoader.charGrid();
+        rolls = BitGrid.of(inputLoader.charGrid(), '@');
     }
 }
@@ -49,20 +49,19 @@ public class Day05 implements DaySolver {
         ingredientIds = new ArrayList<>();
 
         boolean rangesDone = false;
-        Scanner scanner = inputLoader.scanner();
-        while (scanner.hasNextLine()) {
-            String line = scanner.nextLine();
-            if (line.isEmpty()) {
+        Iterator<long[]> lines = inputLoader.longsPerLine().iterator();
+        while (lines.hasNext()) {
+            long[] numbers = lines.next();
+            if (numbers.length == 0) {
                 rangesDone = true;
                 continue;
             }
 
             if (!rangesDone) {
-                String[] bounds = line.split("-");
-                IdRange idRange = new IdRange(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+                IdRange idRange = new IdRange(numbers[0], numbers[1]);
                 ranges.add(idRange);
             } else {
-                ingredientIds.add(new Id(Long.parseLong(line)));
+                ingredientIds.add(new Id(numbers[0]));
             }
         }
 
@@ -5,6 +5,7 @@ import com.github.gjong.advent.DaySolver;
 import com.github.gjong.advent.common.InputLoader;
 import com.github.gjong.advent.common.Validator;
 import com.github.gjong.advent.geo.Point;
+import com.github.gjong.advent.geo.PointSet;
 import com.github.gjong.advent.grid.CharGrid;
 
 import java.math.BigInteger;
@@ -34,22 +35,21 @@ public class Day07 implements DaySolver {
             }
         }
 
-        Set<Point> beamPoints = new HashSet<>();
+        PointSet beamPoints = new PointSet();
         beamPoints.add(startPosition.down());
         for (int rowIdx = 2; rowIdx < grid.rows(); rowIdx++) {
-            int finalRowIdx = rowIdx;
-            List<Point> lookAtPoints = beamPoints.stream()
-                    .filter(point -> point.y() + 1 == finalRowIdx)
-                    .map(Point::down)
-                    .toList();
-
-            for (Point pointOfInterest : lookAtPoints) {
-                if (grid.at(pointOfInterest) == '^') {
-                    beamPoints.add(pointOfInterest.right());
-                    beamPoints.add(pointOfInterest.left());
+            for (int colIdx = 0; colIdx < grid.cols(); colIdx++) {
+                if (!beamPoints.contains(colIdx, rowIdx - 1)) {
+                    continue;
+                }
+
+                char pointOfInterest = grid.at(colIdx, rowIdx);
+                if (pointOfInterest == '^') {
+                    beamPoints.add(colIdx + 1, rowIdx);
+                    beamPoints.add(colIdx - 1, rowIdx);
                     numberOfSplits++;
-                } else if (grid.at(pointOfInterest) == '.') {
-                    beamPoints.add(pointOfInterest);
+                } else if (pointOfInterest == '.') {
+                    beamPoints.add(colIdx, rowIdx);
                 }
             }
         }